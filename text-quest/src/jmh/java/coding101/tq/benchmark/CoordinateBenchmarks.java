@@ -0,0 +1,95 @@
+package coding101.tq.benchmark;
+
+import coding101.tq.domain.Coordinate;
+import coding101.tq.domain.TerrainMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for parsing coordinate keys, comparing regular expressions to
+ * {@link Coordinate#find(CharSequence, boolean)}.
+ *
+ * Each benchmark parses the same {@link #KEYS} random keys, as {@code "x,y"},
+ * or with {@code spaces} as {@code "x, y"} as used in map metadata.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CoordinateBenchmarks {
+
+    /** The number of coordinate keys parsed per benchmark invocation. */
+    public static final int KEYS = 100_000;
+
+    @Param({"false", "true"})
+    private boolean spaces;
+
+    private Pattern pattern;
+    private String[] keys;
+
+    /**
+     * Create the coordinate keys.
+     */
+    @Setup
+    public void setup() {
+        // the pattern the keys were parsed with before Coordinate.find()
+        pattern = spaces ? TerrainMap.COORDINATE_REGEX : Coordinate.KEY_PATTERN;
+
+        Random rng = new Random(KEYS);
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            int x = rng.nextInt(4096);
+            int y = rng.nextInt(4096);
+            keys[i] = spaces ? x + ", " + y : x + "," + y;
+        }
+    }
+
+    /**
+     * Parse the keys with a regular expression.
+     *
+     * @return the sum of the packed coordinates
+     */
+    @Benchmark
+    public long regex() {
+        long result = 0;
+        for (String key : keys) {
+            Matcher m = pattern.matcher(key);
+            if (m.find()) {
+                result += Coordinate.pack(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parse the keys with {@link Coordinate#find(CharSequence, boolean)}.
+     *
+     * @return the sum of the packed coordinates
+     */
+    @Benchmark
+    public long find() {
+        long result = 0;
+        for (String key : keys) {
+            long packed = Coordinate.find(key, spaces);
+            if (packed >= 0) {
+                result += packed;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package coding101.tq.benchmark;
+
+import coding101.tq.GameConfiguration;
+import coding101.tq.GameEngine;
+import coding101.tq.GameEngine.Command;
+import coding101.tq.GameEngine.Result;
+import coding101.tq.domain.Player;
+import coding101.tq.domain.PlayerItems;
+import coding101.tq.domain.Settings;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for executing game commands with the headless game engine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GameEngineBenchmarks {
+
+    /** The number of pre-generated random commands, executed in a cycle. */
+    public static final int COMMANDS = 64 * 1024;
+
+    private static final Command[] MOVES = {
+        GameEngine.Move.LEFT, GameEngine.Move.RIGHT, GameEngine.Move.UP, GameEngine.Move.DOWN
+    };
+
+    @Param({"1024"})
+    private int size;
+
+    private GameEngine engine;
+    private Command[] commands;
+    private int next;
+
+    /**
+     * Create a game on a map of grass with scattered chests, and random commands
+     * for a bot to play it with.
+     */
+    @Setup
+    public void setup() {
+        Random rng = new Random(size);
+        byte[] cells = new byte[size * size];
+        Arrays.fill(cells, TerrainType.Grass.code());
+        for (int i = 0; i < cells.length / 100; i++) {
+            cells[rng.nextInt(cells.length)] = TerrainType.Chest.code();
+        }
+        TerrainMap map = new TerrainMap("main", size, size, cells, Map.of());
+        Player player = new Player(GameConfiguration.DEFAULTS);
+        player.moveTo(map, size / 2, size / 2);
+        engine = new GameEngine(new Settings(null, new PlayerItems()), map, player, name -> map, rng);
+        commands = new Command[COMMANDS];
+        for (int i = 0; i < COMMANDS; i++) {
+            commands[i] = (rng.nextInt(8) == 0 ? GameEngine.Interact.INSTANCE : MOVES[rng.nextInt(MOVES.length)]);
+        }
+    }
+
+    /**
+     * Execute the next random command.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Result execute() {
+        Command command = commands[next];
+        next = (next + 1) & (COMMANDS - 1);
+        return engine.execute(command);
+    }
+}
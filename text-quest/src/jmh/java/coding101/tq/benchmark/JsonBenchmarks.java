@@ -0,0 +1,131 @@
+package coding101.tq.benchmark;
+
+import coding101.tq.domain.Coordinate;
+import coding101.tq.util.BitSetJson;
+import coding101.tq.util.CoordinateJson;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the JSON handling of visited map rows and coordinates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class JsonBenchmarks {
+
+    /** The number of visited map rows. */
+    public static final int ROWS = 1024;
+
+    /** The number of coordinate keys. */
+    public static final int COORDINATES = 100_000;
+
+    @Param({"false", "true"})
+    private boolean compact;
+
+    @Param({"1", "50", "100"})
+    private int percentVisited;
+
+    private ObjectMapper mapper;
+    private List<BitSet> rows;
+    private String rowsJson;
+    private TreeMap<Coordinate, Coordinate> coordinates;
+    private String coordinatesJson;
+
+    /**
+     * Create the visited map rows and coordinates.
+     *
+     * @throws JsonProcessingException if any JSON error occurs
+     */
+    @Setup
+    public void setup() throws JsonProcessingException {
+        mapper = new ObjectMapper();
+        mapper.registerModule(BitSetJson.createBitSetModule(compact));
+        mapper.registerModule(CoordinateJson.createCoordinateModule());
+
+        Random rng = new Random(percentVisited);
+        rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            BitSet row = new BitSet(ROWS);
+            for (int col = 0; col < ROWS; col++) {
+                if (percentVisited == 100 || rng.nextInt(100) < percentVisited) {
+                    row.set(col);
+                }
+            }
+            rows.add(row);
+        }
+        rowsJson = mapper.writeValueAsString(rows);
+
+        coordinates = new TreeMap<>();
+        while (coordinates.size() < COORDINATES) {
+            coordinates.put(
+                    new Coordinate(rng.nextInt(4096), rng.nextInt(4096)),
+                    new Coordinate(rng.nextInt(4096), rng.nextInt(4096)));
+        }
+        coordinatesJson = mapper.writeValueAsString(coordinates);
+    }
+
+    /**
+     * Serialize the visited map rows.
+     *
+     * @return the JSON
+     * @throws JsonProcessingException if any JSON error occurs
+     */
+    @Benchmark
+    public String writeBitSets() throws JsonProcessingException {
+        return mapper.writeValueAsString(rows);
+    }
+
+    /**
+     * Deserialize the visited map rows.
+     *
+     * @return the rows
+     * @throws JsonProcessingException if any JSON error occurs
+     */
+    @Benchmark
+    public List<BitSet> readBitSets() throws JsonProcessingException {
+        return mapper.readValue(rowsJson, BitSetJson.BITSET_LIST_TYPE);
+    }
+
+    /**
+     * Serialize a map of coordinates, as for vehicles.
+     *
+     * @return the JSON
+     * @throws JsonProcessingException if any JSON error occurs
+     */
+    @Benchmark
+    public String writeCoordinates() throws JsonProcessingException {
+        return mapper.writeValueAsString(coordinates);
+    }
+
+    /**
+     * Deserialize a map of coordinates, as for vehicles.
+     *
+     * @return the coordinates
+     * @throws JsonProcessingException if any JSON error occurs
+     */
+    @Benchmark
+    public TreeMap<Coordinate, Coordinate> readCoordinates() throws JsonProcessingException {
+        return mapper.readValue(coordinatesJson, CoordinateJson.COORDINATE_SORTED_MAP_TYPE);
+    }
+}
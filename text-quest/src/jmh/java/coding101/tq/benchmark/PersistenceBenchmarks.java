@@ -0,0 +1,104 @@
+package coding101.tq.benchmark;
+
+import coding101.tq.TextQuest;
+import coding101.tq.domain.Player;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.util.Persistence;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for saving and loading a player that has explored a large map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PersistenceBenchmarks {
+
+    /** The number of interactions the player has made. */
+    public static final int INTERACTIONS = 100_000;
+
+    @Param({"false", "true"})
+    private boolean binary;
+
+    @Param({"1024"})
+    private int size;
+
+    private Persistence persistence;
+    private Player player;
+    private byte[] save;
+
+    /**
+     * Create a player that has visited the entire map, and interacted with many
+     * coordinates on it.
+     *
+     * @throws IOException if any I/O error occurs
+     */
+    @Setup
+    public void setup() throws IOException {
+        // configure the same as the game does
+        persistence = new Persistence(TextQuest.createMapper(), binary);
+
+        byte[] cells = new byte[size * size];
+        Arrays.fill(cells, TerrainType.Grass.code());
+        TerrainMap map = new TerrainMap("main", size, size, cells, Map.of());
+        player = new Player();
+        player.setActiveMapName(map.getName());
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                player.visited(map, x, y);
+            }
+        }
+        Random rng = new Random(size);
+        for (int i = 0; i < INTERACTIONS; ) {
+            if (player.interacted(map, rng.nextInt(size), rng.nextInt(size))) {
+                i++;
+            }
+        }
+        save = save();
+    }
+
+    /**
+     * Save the player.
+     *
+     * @return the saved data
+     * @throws IOException if any I/O error occurs
+     */
+    @Benchmark
+    public byte[] save() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(save != null ? save.length : 64 * 1024);
+        persistence.savePlayer(player, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Load the player.
+     *
+     * @return the player
+     * @throws IOException if any I/O error occurs
+     */
+    @Benchmark
+    public Player load() throws IOException {
+        return persistence.loadPlayer(new ByteArrayInputStream(save));
+    }
+}
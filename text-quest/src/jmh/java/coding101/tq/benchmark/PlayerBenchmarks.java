@@ -0,0 +1,117 @@
+package coding101.tq.benchmark;
+
+import coding101.tq.domain.Coordinate;
+import coding101.tq.domain.Player;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.domain.VisitedMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the player map lookups done for every drawn map cell.
+ *
+ * Each benchmark looks up {@link #LOOKUPS} random coordinates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PlayerBenchmarks {
+
+    /** The number of coordinates looked up per benchmark invocation. */
+    public static final int LOOKUPS = 4096;
+
+    @Param({"1024"})
+    private int size;
+
+    @Param({"1000"})
+    private int vehicleCount;
+
+    private TerrainMap map;
+    private VisitedMap visited;
+    private Player player;
+    private int[] xs;
+    private int[] ys;
+
+    /**
+     * Create a player that has visited a quarter of a random map, with vehicles
+     * scattered over the map.
+     */
+    @Setup
+    public void setup() {
+        Random rng = new Random(size);
+        byte[] cells = new byte[size * size];
+        Arrays.fill(cells, TerrainType.Water.code());
+        map = new TerrainMap("main", size, size, cells, Map.of());
+        visited = new VisitedMap(size, size);
+        player = new Player();
+        for (int i = 0, count = size * size / 4; i < count; i++) {
+            int x = rng.nextInt(size);
+            int y = rng.nextInt(size);
+            visited.visit(x, y);
+            player.visited(map, x, y);
+        }
+        Map<Coordinate, Coordinate> vehicles = new HashMap<>(vehicleCount);
+        for (int i = 0; i < vehicleCount; i++) {
+            vehicles.put(
+                    new Coordinate(rng.nextInt(size), rng.nextInt(size)),
+                    new Coordinate(rng.nextInt(size), rng.nextInt(size)));
+        }
+        player.setVehicles(Map.of(map.getName(), vehicles));
+        xs = new int[LOOKUPS];
+        ys = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            xs[i] = rng.nextInt(size);
+            ys[i] = rng.nextInt(size);
+        }
+    }
+
+    /**
+     * Look up the "near visited" state of random coordinates.
+     *
+     * @return the number of coordinates near a visited coordinate
+     */
+    @Benchmark
+    public int hasVisitedNear() {
+        int count = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (visited.hasVisitedNear(xs[i], ys[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Look up the vehicle state of random coordinates.
+     *
+     * @return the number of coordinates a vehicle is located at
+     */
+    @Benchmark
+    public int vehicleLocatedAt() {
+        int count = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (player.vehicleLocatedAt(map, xs[i], ys[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,103 @@
+package coding101.tq.benchmark;
+
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.util.TerrainMapBuilder;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for parsing, walking, and rendering terrain maps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TerrainMapBenchmarks {
+
+    /** The width of the walked and rendered area, as for a large terminal. */
+    public static final int VIEW_WIDTH = 160;
+
+    /** The height of the walked and rendered area, as for a large terminal. */
+    public static final int VIEW_HEIGHT = 48;
+
+    private static final TerrainType[] TERRAIN = {
+        TerrainType.Grass, TerrainType.Grass, TerrainType.Forest, TerrainType.Water, TerrainType.Sand, TerrainType.Hill
+    };
+
+    @Param({"256", "1024"})
+    private int size;
+
+    private TerrainMap map;
+    private String text;
+
+    /**
+     * Create a random map, and its text form.
+     */
+    @Setup
+    public void setup() {
+        Random rng = new Random(size);
+        byte[] cells = new byte[size * size];
+        StringBuilder buf = new StringBuilder(cells.length + size);
+        for (int i = 0; i < cells.length; i++) {
+            TerrainType t = TERRAIN[rng.nextInt(TERRAIN.length)];
+            cells[i] = t.code();
+            buf.append(t.getKey());
+            if ((i + 1) % size == 0) {
+                buf.append('\n');
+            }
+        }
+        map = new TerrainMap("main", size, size, cells, Map.of());
+        text = buf.toString();
+    }
+
+    /**
+     * Parse the map text.
+     *
+     * @return the parsed terrain
+     * @throws IOException if any I/O error occurs
+     */
+    @Benchmark
+    public TerrainType[][] parseTerrainData() throws IOException {
+        return TerrainMapBuilder.parseTerrainData(new BufferedReader(new StringReader(text)), new HashMap<>(4));
+    }
+
+    /**
+     * Walk a screen-sized area of the map.
+     *
+     * @param bh the blackhole to consume the terrain with
+     */
+    @Benchmark
+    public void walk(Blackhole bh) {
+        map.walk(size / 2, size / 2, VIEW_WIDTH, VIEW_HEIGHT, (x, y, t) -> bh.consume(t));
+    }
+
+    /**
+     * Render a screen-sized area of the map.
+     *
+     * @return the rendered area
+     */
+    @Benchmark
+    public String render() {
+        return map.render(size / 2, size / 2, VIEW_WIDTH, VIEW_HEIGHT);
+    }
+}
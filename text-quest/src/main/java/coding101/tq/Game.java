@@ -65,6 +65,13 @@ public interface Game {
      */
     TerrainMap map();
 
+    /**
+     * Get the current screen layout.
+     *
+     * @return the layout
+     */
+    Layout layout();
+
     /**
      * Read a yes/no style response from the player.
      *
@@ -25,6 +25,9 @@ package coding101.tq;
  * @param revealMap                show the map, regardless if visited; defaults
  *                                 to false
  * @param gui                      use the texture image renderer
+ * @param scroll                   keep the player centred on the map, scrolling
+ *                                 the map as they move, rather than showing the
+ *                                 map in pages; defaults to false
  */
 public record GameConfiguration(
         int initialCoins,
@@ -38,11 +41,24 @@ public record GameConfiguration(
         GameXpConfiguration xp,
         GameShopConfiguration shop,
         boolean revealMap,
-        boolean gui) {
+        boolean gui,
+        boolean scroll) {
 
     /** The default game configuration. */
     public static final GameConfiguration DEFAULTS = new GameConfiguration(
-            20, 30, 30, 100, 5, 100, 50, 5, GameXpConfiguration.DEFAULTS, GameShopConfiguration.DEFAULTS, false, false);
+            20,
+            30,
+            30,
+            100,
+            5,
+            100,
+            50,
+            5,
+            GameXpConfiguration.DEFAULTS,
+            GameShopConfiguration.DEFAULTS,
+            false,
+            false,
+            false);
 
     /**
      * Get a new configuration with a specific number of initial coins.
@@ -63,7 +79,8 @@ public record GameConfiguration(
                 xp,
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scroll);
     }
 
     /**
@@ -85,7 +102,8 @@ public record GameConfiguration(
                 new GameXpConfiguration(xp, this.xp.exploreXp(), this.xp.chestXp()),
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scroll);
     }
 
     /**
@@ -107,7 +125,8 @@ public record GameConfiguration(
                 xp,
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scroll);
     }
 
     /**
@@ -130,7 +149,8 @@ public record GameConfiguration(
                 xp,
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scroll);
     }
 
     /**
@@ -153,7 +173,8 @@ public record GameConfiguration(
                 xp,
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scroll);
     }
 
     /**
@@ -175,7 +196,8 @@ public record GameConfiguration(
                 xp,
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scroll);
     }
 
     /**
@@ -197,6 +219,31 @@ public record GameConfiguration(
                 xp,
                 shop,
                 revealMap,
-                gui);
+                gui,
+                scroll);
+    }
+
+    /**
+     * Get a new configuration with a specific scroll flag.
+     *
+     * @param scroll true to keep the player centred on the map, scrolling the map
+     *               as they move
+     * @return the new configuration
+     */
+    public GameConfiguration withScroll(boolean scroll) {
+        return new GameConfiguration(
+                initialCoins,
+                initialHealth,
+                initialMaxHealth,
+                maxPossibleHealth,
+                lavaHealthDamage,
+                chestCoinsMaximum,
+                chestRewardFactor,
+                chestHealthDamageMaximum,
+                xp,
+                shop,
+                revealMap,
+                gui,
+                scroll);
     }
 }
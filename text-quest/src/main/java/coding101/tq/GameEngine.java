@@ -0,0 +1,616 @@
+package coding101.tq;
+
+import coding101.tq.domain.Coordinate;
+import coding101.tq.domain.MapOverlay;
+import coding101.tq.domain.Player;
+import coding101.tq.domain.Settings;
+import coding101.tq.domain.Shop;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.domain.items.InventoryItem;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * The game rules, applied to a player without any user interface.
+ *
+ * The engine executes commands, such as moving the player or interacting with
+ * the terrain they are on, and reports the outcome of each command. Choices the
+ * game asks the player to make, such as whether to hire a ship or which item to
+ * buy, are separate commands, so a sequence of commands describes an entire
+ * game session. The terminal game translates key presses into commands and
+ * draws the outcomes; other clients, such as tests, benchmarks, or bots, can
+ * execute commands directly.
+ *
+ * This class is not thread-safe.
+ */
+public class GameEngine {
+
+    /** The number of coins it costs to hire a ship. */
+    public static final int SHIP_COST = 100;
+
+    /**
+     * A command outcome.
+     */
+    public enum Outcome {
+
+        /** The command had no effect. */
+        NONE,
+
+        /** The player is dead, so the command had no effect. */
+        DEAD,
+
+        /** The player can not move to the requested coordinate. */
+        BLOCKED,
+
+        /** The player moved to a coordinate they had already visited. */
+        MOVED,
+
+        /** The player moved to a coordinate for the first time. */
+        EXPLORED,
+
+        /** The player entered a cave or town map. */
+        ENTERED_MAP,
+
+        /** The player exited a cave or town map, back to the main map. */
+        EXITED_MAP,
+
+        /** The player opened a chest and found coins. */
+        CHEST_COINS,
+
+        /** The player opened a chest and took damage. */
+        CHEST_DAMAGE,
+
+        /** The player opened an empty chest. */
+        CHEST_EMPTY,
+
+        /** The player had already opened the chest. */
+        CHEST_ALREADY_OPENED,
+
+        /** The player can hire a ship, for {@link #SHIP_COST} coins. */
+        SHIP_OFFERED,
+
+        /** The player does not have enough coins to hire a ship. */
+        SHIP_UNAFFORDABLE,
+
+        /** The player hired a ship. */
+        SHIP_HIRED,
+
+        /** The player is on board a ship and can disembark. */
+        DISEMBARK_OFFERED,
+
+        /** The player disembarked a ship. */
+        DISEMBARKED,
+
+        /** The player is at a shop. */
+        SHOP_ENTERED,
+
+        /** The player bought an item. */
+        PURCHASED,
+
+        /** The player does not have enough coins to buy an item. */
+        INSUFFICIENT_FUNDS,
+
+        /** The player sold an item. */
+        SOLD,
+
+        /** The player has no items to sell. */
+        NOTHING_TO_SELL,
+
+        /** The player equipped or used an item. */
+        EQUIPPED,
+
+        /** The player unequipped an item. */
+        STASHED,
+
+        /** The chosen item does not exist. */
+        INVALID_CHOICE,
+    }
+
+    /**
+     * A command result.
+     *
+     * @param outcome the outcome
+     * @param amount  an amount associated with the outcome, such as the number of
+     *                coins found in a chest or the price of an item, or {@code 0}
+     */
+    public record Result(Outcome outcome, int amount) {
+
+        private static final Result[] SIMPLE_RESULTS = Arrays.stream(Outcome.values())
+                .map(outcome -> new Result(outcome, 0))
+                .toArray(Result[]::new);
+
+        /**
+         * Get a result without any amount.
+         *
+         * @param outcome the outcome
+         * @return the result, which is a shared instance
+         */
+        public static Result of(Outcome outcome) {
+            return SIMPLE_RESULTS[outcome.ordinal()];
+        }
+    }
+
+    /**
+     * A game command.
+     */
+    public sealed interface Command {}
+
+    /**
+     * Move the player by an offset.
+     *
+     * @param dx the x offset
+     * @param dy the y offset
+     */
+    public record Move(int dx, int dy) implements Command {
+
+        /** Move left. */
+        public static final Move LEFT = new Move(-1, 0);
+
+        /** Move right. */
+        public static final Move RIGHT = new Move(1, 0);
+
+        /** Move up. */
+        public static final Move UP = new Move(0, -1);
+
+        /** Move down. */
+        public static final Move DOWN = new Move(0, 1);
+    }
+
+    /**
+     * Interact with the terrain at the player's coordinate.
+     */
+    public record Interact() implements Command {
+
+        /** A shared instance. */
+        public static final Interact INSTANCE = new Interact();
+    }
+
+    /**
+     * Hire the ship at the player's coordinate.
+     */
+    public record HireShip() implements Command {
+
+        /** A shared instance. */
+        public static final HireShip INSTANCE = new HireShip();
+    }
+
+    /**
+     * Disembark the boarded ship.
+     */
+    public record Disembark() implements Command {
+
+        /** A shared instance. */
+        public static final Disembark INSTANCE = new Disembark();
+    }
+
+    /**
+     * Buy an item from the shop at the player's coordinate.
+     *
+     * @param choice the 1-based index of the item in {@link Shop#itemsForSale()}
+     */
+    public record Buy(int choice) implements Command {}
+
+    /**
+     * Sell an item to the shop at the player's coordinate.
+     *
+     * @param choice the 1-based index of the item in
+     *               {@link GameEngine#sellableItems()}
+     */
+    public record Sell(int choice) implements Command {}
+
+    /**
+     * Equip or use an item.
+     *
+     * @param choice the 1-based index of the item in
+     *               {@link GameEngine#equipableItems()}
+     */
+    public record Equip(int choice) implements Command {}
+
+    /**
+     * Unequip an item.
+     *
+     * @param choice the 1-based index of the item in
+     *               {@link GameEngine#equippedItems()}
+     */
+    public record Stash(int choice) implements Command {}
+
+    private final Settings settings;
+    private final TerrainMap mainMap;
+    private final Player player;
+    private final Function<String, TerrainMap> childMaps;
+    private final RandomGenerator random;
+    private final MapOverlay overlay;
+    private TerrainMap activeMap;
+
+    /**
+     * Constructor.
+     *
+     * @param settings  the game settings
+     * @param mainMap   the main map
+     * @param player    the player, which must be configured
+     * @param childMaps a function to load cave and town maps by name
+     * @param random    the random generator to use for all game chance, such as
+     *                  the contents of chests
+     * @throws IllegalArgumentException if any argument is {@code null}
+     */
+    public GameEngine(
+            Settings settings,
+            TerrainMap mainMap,
+            Player player,
+            Function<String, TerrainMap> childMaps,
+            RandomGenerator random) {
+        super();
+        this.settings = Objects.requireNonNull(settings);
+        this.mainMap = Objects.requireNonNull(mainMap);
+        this.player = Objects.requireNonNull(player);
+        this.childMaps = Objects.requireNonNull(childMaps);
+        this.random = Objects.requireNonNull(random);
+        this.overlay = new MapOverlay(settings.items(), player, this.random);
+        if (player.getActiveMapName() == null || player.getActiveMapName().equals(mainMap.getName())) {
+            this.activeMap = mainMap;
+        } else {
+            this.activeMap = childMaps.apply(player.getActiveMapName());
+        }
+    }
+
+    /**
+     * Get the game settings.
+     *
+     * @return the settings
+     */
+    public Settings settings() {
+        return settings;
+    }
+
+    /**
+     * Get the main map.
+     *
+     * @return the main map
+     */
+    public TerrainMap mainMap() {
+        return mainMap;
+    }
+
+    /**
+     * Get the player.
+     *
+     * @return the player
+     */
+    public Player player() {
+        return player;
+    }
+
+    /**
+     * Get the random generator used for all game chance.
+     *
+     * @return the random generator
+     */
+    public RandomGenerator random() {
+        return random;
+    }
+
+    /**
+     * Get the active map, that the player is on.
+     *
+     * @return the active map
+     */
+    public TerrainMap map() {
+        return activeMap;
+    }
+
+    /**
+     * Get the transient state of the game, layered over the maps.
+     *
+     * @return the overlay
+     */
+    public MapOverlay overlay() {
+        return overlay;
+    }
+
+    /**
+     * Execute a command.
+     *
+     * If the player is dead, no command has any effect.
+     *
+     * @param command the command to execute
+     * @return the result
+     */
+    public Result execute(Command command) {
+        if (player.isDead()) {
+            return Result.of(Outcome.DEAD);
+        }
+        return switch (command) {
+            case Move move -> move(move.dx(), move.dy());
+            case Interact interact -> interact();
+            case HireShip hire -> hireShip();
+            case Disembark disembark -> disembark();
+            case Buy buy -> buy(buy.choice());
+            case Sell sell -> sell(sell.choice());
+            case Equip equip -> equip(equip.choice());
+            case Stash stash -> stash(stash.choice());
+        };
+    }
+
+    /**
+     * Move the player by an offset.
+     *
+     * Moving to a coordinate for the first time earns the player experience
+     * points.
+     *
+     * @param dx the x offset
+     * @param dy the y offset
+     * @return the result, with one of {@link Outcome#BLOCKED},
+     *         {@link Outcome#MOVED}, or {@link Outcome#EXPLORED}
+     */
+    public Result move(int dx, int dy) {
+        final int newX = player.getX() + dx;
+        final int newY = player.getY() + dy;
+        if ((dx == 0 && dy == 0)
+                || newX < 0
+                || newY < 0
+                || newX >= activeMap.width()
+                || newY >= activeMap.height()
+                || !player.canMoveTo(activeMap, newX, newY)) {
+            return Result.of(Outcome.BLOCKED);
+        }
+        if (player.moveTo(activeMap, newX, newY)) {
+            player.addXp(player.config().xp().exploreXp());
+            return Result.of(Outcome.EXPLORED);
+        }
+        return Result.of(Outcome.MOVED);
+    }
+
+    /**
+     * Interact with the terrain at the player's coordinate.
+     *
+     * <ul>
+     * <li>a cave or town is entered from the main map, or exited back to the main
+     * map</li>
+     * <li>a chest is opened</li>
+     * <li>a ship is offered for hire, or if on board, to disembark from</li>
+     * <li>a shop is entered; see {@link #shop()}</li>
+     * </ul>
+     *
+     * @return the result
+     */
+    public Result interact() {
+        TerrainType t = activeMap.terrainAt(player.getX(), player.getY());
+        return switch (t) {
+            case Cave, Town -> changeMap();
+            case Chest -> openChest();
+            case Ship, Water -> offerShip();
+            case Shop -> Result.of(Outcome.SHOP_ENTERED);
+            default -> Result.of(Outcome.NONE);
+        };
+    }
+
+    private Result changeMap() {
+        // if the active map is the main map, we want to enter a cave, otherwise we want
+        // to exit back to the main map
+        if (activeMap == mainMap) {
+            TerrainMap childMap = childMaps.apply(TerrainMap.childMapName(player.getX(), player.getY()));
+            activeMap = childMap;
+
+            // re-entering a map starts it afresh, e.g. re-stocking shops
+            overlay.clear(childMap.getName());
+            player.moveTo(childMap, childMap.startingCoordinate());
+            return Result.of(Outcome.ENTERED_MAP);
+        }
+
+        // exit to the coordinate that is the map name
+        final long coord = Coordinate.find(activeMap.getName(), true);
+        if (coord < 0) {
+            return Result.of(Outcome.NONE);
+        }
+        player.moveTo(mainMap, Coordinate.unpackX(coord), Coordinate.unpackY(coord));
+        activeMap = mainMap;
+        return Result.of(Outcome.EXITED_MAP);
+    }
+
+    private Result openChest() {
+        if (!player.interacted(activeMap, player.getX(), player.getY())) {
+            return Result.of(Outcome.CHEST_ALREADY_OPENED);
+        }
+        final GameConfiguration config = player.config();
+        int coinsFound = 0;
+        int damageTaken = 0;
+
+        // TODO: open chest and deal with outcome: damage vs coins; decide first if
+        // the chest provides coins or deducts health. Then decide either how many
+        // coins to reward with, or health to deduct from, the player, updating the
+        // coinsFound or damageTaken variables appropriately. Use the random()
+        // generator for any chance, so games can be replayed.
+
+        Result result;
+        if (coinsFound > 0) {
+            player.addCoins(coinsFound);
+            result = new Result(Outcome.CHEST_COINS, coinsFound);
+        } else if (damageTaken > 0) {
+            player.deductHealth(damageTaken);
+            result = new Result(Outcome.CHEST_DAMAGE, damageTaken);
+        } else {
+            result = Result.of(Outcome.CHEST_EMPTY);
+        }
+
+        // earn XP
+        player.addXp(config.xp().chestXp());
+        return result;
+    }
+
+    private Result offerShip() {
+        if (player.onboard()) {
+            return Result.of(Outcome.DISEMBARK_OFFERED);
+        }
+        if (player.getCoins() < SHIP_COST) {
+            return Result.of(Outcome.SHIP_UNAFFORDABLE);
+        }
+        return new Result(Outcome.SHIP_OFFERED, SHIP_COST);
+    }
+
+    /**
+     * Hire the ship at the player's coordinate, for {@link #SHIP_COST} coins.
+     *
+     * @return the result, with one of {@link Outcome#NONE} if not at a ship,
+     *         {@link Outcome#SHIP_UNAFFORDABLE}, or {@link Outcome#SHIP_HIRED}
+     */
+    public Result hireShip() {
+        TerrainType t = activeMap.terrainAt(player.getX(), player.getY());
+        if (player.onboard() || (t != TerrainType.Ship && t != TerrainType.Water)) {
+            return Result.of(Outcome.NONE);
+        }
+        if (player.getCoins() < SHIP_COST) {
+            return Result.of(Outcome.SHIP_UNAFFORDABLE);
+        }
+        player.board();
+        player.deductCoins(SHIP_COST);
+        return new Result(Outcome.SHIP_HIRED, SHIP_COST);
+    }
+
+    /**
+     * Disembark the boarded ship.
+     *
+     * @return the result, with one of {@link Outcome#NONE} if not on board, or
+     *         {@link Outcome#DISEMBARKED}
+     */
+    public Result disembark() {
+        if (!player.onboard()) {
+            return Result.of(Outcome.NONE);
+        }
+        player.disembark();
+        return Result.of(Outcome.DISEMBARKED);
+    }
+
+    /**
+     * Get the shop at the player's coordinate.
+     *
+     * @return the shop, or {@code null} if the player is not at a shop
+     */
+    public Shop shop() {
+        final int x = player.getX();
+        final int y = player.getY();
+        if (activeMap.terrainAt(x, y) != TerrainType.Shop) {
+            return null;
+        }
+        return overlay.shopAt(activeMap, x, y);
+    }
+
+    /**
+     * Buy an item from the shop at the player's coordinate.
+     *
+     * @param choice the 1-based index of the item in {@link Shop#itemsForSale()}
+     * @return the result, with one of {@link Outcome#NONE} if not at a shop,
+     *         {@link Outcome#INVALID_CHOICE}, {@link Outcome#INSUFFICIENT_FUNDS},
+     *         or {@link Outcome#PURCHASED} with the item price
+     */
+    public Result buy(int choice) {
+        final Shop shop = shop();
+        if (shop == null) {
+            return Result.of(Outcome.NONE);
+        }
+        final List<InventoryItem> items = shop.itemsForSale();
+        if (choice < 1 || choice > items.size()) {
+            return Result.of(Outcome.INVALID_CHOICE);
+        }
+        final InventoryItem item = items.get(choice - 1);
+        if (item.price() > player.getCoins()) {
+            return new Result(Outcome.INSUFFICIENT_FUNDS, item.price());
+        }
+        shop.purchase(item);
+        return new Result(Outcome.PURCHASED, item.price());
+    }
+
+    /**
+     * Get the items the player can sell, which are all items not equipped.
+     *
+     * @return the items
+     */
+    public List<InventoryItem> sellableItems() {
+        return player.getItems().getItems().stream()
+                .filter(item -> !item.isEquipped())
+                .toList();
+    }
+
+    /**
+     * Sell an item to the shop at the player's coordinate.
+     *
+     * @param choice the 1-based index of the item in {@link #sellableItems()}
+     * @return the result, with one of {@link Outcome#NONE} if not at a shop,
+     *         {@link Outcome#NOTHING_TO_SELL}, {@link Outcome#INVALID_CHOICE}, or
+     *         {@link Outcome#SOLD} with the sell price
+     */
+    public Result sell(int choice) {
+        final Shop shop = shop();
+        if (shop == null) {
+            return Result.of(Outcome.NONE);
+        }
+        final List<InventoryItem> items = sellableItems();
+        if (items.isEmpty()) {
+            return Result.of(Outcome.NOTHING_TO_SELL);
+        }
+        if (choice < 1 || choice > items.size()) {
+            return Result.of(Outcome.INVALID_CHOICE);
+        }
+        final InventoryItem item = items.get(choice - 1);
+        final int price = shop.sellItemPrice(item);
+        shop.sell(item);
+        return new Result(Outcome.SOLD, price);
+    }
+
+    /**
+     * Get the items the player can equip or use, in the order shown in the UI.
+     *
+     * @return the items
+     */
+    public List<InventoryItem> equipableItems() {
+        return player.getItems().equipableItemsByType().values().stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * Equip or use an item.
+     *
+     * @param choice the 1-based index of the item in {@link #equipableItems()}
+     * @return the result, with one of {@link Outcome#INVALID_CHOICE} or
+     *         {@link Outcome#EQUIPPED}
+     */
+    public Result equip(int choice) {
+        final List<InventoryItem> items = equipableItems();
+        if (choice < 1 || choice > items.size()) {
+            return Result.of(Outcome.INVALID_CHOICE);
+        }
+        player.getItems().apply(items.get(choice - 1), player);
+        return Result.of(Outcome.EQUIPPED);
+    }
+
+    /**
+     * Get the items the player has equipped, in the order shown in the UI.
+     *
+     * @return the items
+     */
+    public List<InventoryItem> equippedItems() {
+        return player.getItems().equippedItemsByType().values().stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * Unequip an item, keeping it in the inventory.
+     *
+     * @param choice the 1-based index of the item in {@link #equippedItems()}
+     * @return the result, with one of {@link Outcome#INVALID_CHOICE} or
+     *         {@link Outcome#STASHED}
+     */
+    public Result stash(int choice) {
+        final List<InventoryItem> items = equippedItems();
+        if (choice < 1 || choice > items.size()) {
+            return Result.of(Outcome.INVALID_CHOICE);
+        }
+        player.getItems().stash(items.get(choice - 1), player);
+        return Result.of(Outcome.STASHED);
+    }
+}
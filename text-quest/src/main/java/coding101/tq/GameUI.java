@@ -4,7 +4,9 @@ import static coding101.tq.domain.ColorPalette.color;
 
 import coding101.tq.domain.Shop;
 import com.googlecode.lanterna.Symbols;
+import com.googlecode.lanterna.TerminalSize;
 import com.googlecode.lanterna.TextColor.ANSI;
+import com.googlecode.lanterna.screen.Screen;
 import java.io.IOException;
 import java.util.Objects;
 import java.util.Timer;
@@ -20,8 +22,9 @@ public class GameUI implements Pane {
     private final StatusPane status;
     private final HealthPane health;
 
-    private final int mapRightOffset;
-    private final int mapBottomOffset;
+    private final int infoWidth;
+    private final int statusHeight;
+    private Layout layout;
     private ShopPane shop;
 
     /**
@@ -36,14 +39,34 @@ public class GameUI implements Pane {
     public GameUI(final Game game, final Timer timer, final int infoWidth, final int statusHeight) {
         super();
         this.game = Objects.requireNonNull(game);
-        this.mapRightOffset = infoWidth + 3;
-        this.mapBottomOffset = statusHeight + 3;
-        this.map = new MapPane(game, mapRightOffset, mapBottomOffset);
-        this.info = new InfoPane(game, infoWidth, statusHeight + 3);
-        this.status = new StatusPane(game, infoWidth + 3, statusHeight, timer);
+        this.infoWidth = infoWidth;
+        this.statusHeight = statusHeight;
+        this.layout = Layout.of(game.screen().getTerminalSize(), infoWidth, statusHeight);
+        this.map = new MapPane(game);
+        this.info = new InfoPane(game, infoWidth);
+        this.status = new StatusPane(game, statusHeight, timer);
         this.health = new HealthPane(game, infoWidth, statusHeight);
     }
 
+    /**
+     * Get the current screen layout.
+     *
+     * @return the layout
+     */
+    public Layout layout() {
+        return layout;
+    }
+
+    /**
+     * Compute a new screen layout after the terminal size has changed.
+     *
+     * @param size the new terminal size
+     * @throws IllegalArgumentException if {@code size} is {@code null}
+     */
+    public void resize(TerminalSize size) {
+        this.layout = Layout.of(Objects.requireNonNull(size), infoWidth, statusHeight);
+    }
+
     /**
      * Get the map pane.
      *
@@ -95,7 +118,7 @@ public class GameUI implements Pane {
      * @return the shop pane
      */
     public ShopPane startShop(Shop shop) {
-        this.shop = new ShopPane(game, mapRightOffset, mapBottomOffset, shop);
+        this.shop = new ShopPane(game, shop);
         this.shop.draw();
         return this.shop;
     }
@@ -112,22 +135,22 @@ public class GameUI implements Pane {
 
     @Override
     public int top() {
-        return 1;
+        return layout.ui().top();
     }
 
     @Override
     public int left() {
-        return 1;
+        return layout.ui().left();
     }
 
     @Override
     public int bottom() {
-        return game.screen().getTerminalSize().getRows() - 1;
+        return layout.ui().bottom();
     }
 
     @Override
     public int right() {
-        return game.screen().getTerminalSize().getColumns() - 1;
+        return layout.ui().right();
     }
 
     @Override
@@ -170,6 +193,21 @@ public class GameUI implements Pane {
         }
     }
 
+    /**
+     * Redraw any damaged map cells and refresh the screen.
+     *
+     * When only individual map cells have been redrawn, the screen is refreshed
+     * with a delta refresh so only the changed cells are sent to the terminal.
+     */
+    public void refresh() {
+        final boolean full = (shop == null ? map().repair() : true);
+        try {
+            game.screen().refresh(full ? Screen.RefreshType.AUTOMATIC : Screen.RefreshType.DELTA);
+        } catch (IOException e) {
+            throw new RuntimeException("Error refreshing screen: %s".formatted(e.getMessage()), e);
+        }
+    }
+
     /**
      * Draw the game "chrome" (borders).
      *
@@ -181,85 +219,44 @@ public class GameUI implements Pane {
         game.textGraphics()
                 .setBackgroundColor(color(game.settings().colors().background().uiBorder(), ANSI.BLACK));
 
+        final int columns = layout.columns();
+        final int rows = layout.rows();
+
         // top
-        game.textGraphics()
-                .drawLine(1, 0, game.screen().getTerminalSize().getColumns() - 2, 0, Symbols.DOUBLE_LINE_HORIZONTAL);
+        game.textGraphics().drawLine(1, 0, columns - 2, 0, Symbols.DOUBLE_LINE_HORIZONTAL);
 
         // bottom
-        game.textGraphics()
-                .drawLine(
-                        1,
-                        game.screen().getTerminalSize().getRows() - 1,
-                        game.screen().getTerminalSize().getColumns() - 2,
-                        game.screen().getTerminalSize().getRows() - 1,
-                        Symbols.DOUBLE_LINE_HORIZONTAL);
+        game.textGraphics().drawLine(1, rows - 1, columns - 2, rows - 1, Symbols.DOUBLE_LINE_HORIZONTAL);
 
         // left
-        game.textGraphics()
-                .drawLine(0, 1, 0, game.screen().getTerminalSize().getRows() - 1, Symbols.DOUBLE_LINE_VERTICAL);
+        game.textGraphics().drawLine(0, 1, 0, rows - 1, Symbols.DOUBLE_LINE_VERTICAL);
 
         // right
-        game.textGraphics()
-                .drawLine(
-                        game.screen().getTerminalSize().getColumns() - 1,
-                        1,
-                        game.screen().getTerminalSize().getColumns() - 1,
-                        game.screen().getTerminalSize().getRows() - 2,
-                        Symbols.DOUBLE_LINE_VERTICAL);
+        game.textGraphics().drawLine(columns - 1, 1, columns - 1, rows - 2, Symbols.DOUBLE_LINE_VERTICAL);
 
         // corners
         game.textGraphics().setCharacter(0, 0, Symbols.DOUBLE_LINE_TOP_LEFT_CORNER);
-        game.textGraphics()
-                .setCharacter(
-                        game.screen().getTerminalSize().getColumns() - 1, 0, Symbols.DOUBLE_LINE_TOP_RIGHT_CORNER);
-        game.textGraphics()
-                .setCharacter(0, game.screen().getTerminalSize().getRows() - 1, Symbols.DOUBLE_LINE_BOTTOM_LEFT_CORNER);
-        game.textGraphics()
-                .setCharacter(
-                        game.screen().getTerminalSize().getColumns() - 1,
-                        game.screen().getTerminalSize().getRows() - 1,
-                        Symbols.DOUBLE_LINE_BOTTOM_RIGHT_CORNER);
+        game.textGraphics().setCharacter(columns - 1, 0, Symbols.DOUBLE_LINE_TOP_RIGHT_CORNER);
+        game.textGraphics().setCharacter(0, rows - 1, Symbols.DOUBLE_LINE_BOTTOM_LEFT_CORNER);
+        game.textGraphics().setCharacter(columns - 1, rows - 1, Symbols.DOUBLE_LINE_BOTTOM_RIGHT_CORNER);
 
         // bottom status pane
-        final int statusBorderRow = status().top() - 1;
+        final int statusBorderRow = layout.status().top() - 1;
         game.textGraphics().setCharacter(0, statusBorderRow, Symbols.DOUBLE_LINE_T_RIGHT);
-        game.textGraphics()
-                .setCharacter(
-                        game.screen().getTerminalSize().getColumns() - 1, statusBorderRow, Symbols.DOUBLE_LINE_T_LEFT);
-        game.textGraphics()
-                .drawLine(
-                        1,
-                        statusBorderRow,
-                        game.screen().getTerminalSize().getColumns() - 2,
-                        statusBorderRow,
-                        Symbols.DOUBLE_LINE_HORIZONTAL);
+        game.textGraphics().setCharacter(columns - 1, statusBorderRow, Symbols.DOUBLE_LINE_T_LEFT);
+        game.textGraphics().drawLine(1, statusBorderRow, columns - 2, statusBorderRow, Symbols.DOUBLE_LINE_HORIZONTAL);
 
         // right info pane
-        final int infoBorderCol = info().left() - 1;
+        final int infoBorderCol = layout.info().left() - 1;
         game.textGraphics().setCharacter(infoBorderCol, 0, Symbols.DOUBLE_LINE_T_DOWN);
-        game.textGraphics()
-                .drawLine(
-                        infoBorderCol,
-                        1,
-                        infoBorderCol,
-                        game.screen().getTerminalSize().getRows() - 1,
-                        Symbols.DOUBLE_LINE_VERTICAL);
-        game.textGraphics()
-                .setCharacter(infoBorderCol, game.screen().getTerminalSize().getRows() - 3, Symbols.DOUBLE_LINE_CROSS);
-        game.textGraphics()
-                .setCharacter(infoBorderCol, game.screen().getTerminalSize().getRows() - 1, Symbols.DOUBLE_LINE_T_UP);
+        game.textGraphics().drawLine(infoBorderCol, 1, infoBorderCol, rows - 1, Symbols.DOUBLE_LINE_VERTICAL);
+        game.textGraphics().setCharacter(infoBorderCol, rows - 3, Symbols.DOUBLE_LINE_CROSS);
+        game.textGraphics().setCharacter(infoBorderCol, rows - 1, Symbols.DOUBLE_LINE_T_UP);
 
         // info title
         game.textGraphics().setCharacter(infoBorderCol, 2, Symbols.DOUBLE_LINE_T_SINGLE_RIGHT);
-        game.textGraphics()
-                .setCharacter(game.screen().getTerminalSize().getColumns() - 1, 2, Symbols.DOUBLE_LINE_T_SINGLE_LEFT);
-        game.textGraphics()
-                .drawLine(
-                        infoBorderCol + 1,
-                        2,
-                        game.screen().getTerminalSize().getColumns() - 2,
-                        2,
-                        Symbols.SINGLE_LINE_HORIZONTAL);
+        game.textGraphics().setCharacter(columns - 1, 2, Symbols.DOUBLE_LINE_T_SINGLE_LEFT);
+        game.textGraphics().drawLine(infoBorderCol + 1, 2, columns - 2, 2, Symbols.SINGLE_LINE_HORIZONTAL);
 
         game.textGraphics()
                 .setBackgroundColor(color(game.settings().colors().background().uiText(), ANSI.BLACK));
@@ -0,0 +1,122 @@
+package coding101.tq;
+
+import com.googlecode.lanterna.TextCharacter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of fully resolved map glyphs, stored in pages.
+ *
+ * Each page is a row-major grid of screen characters for a fixed-size area of a
+ * map, starting at a multiple of the page size. Cells are resolved lazily, so a
+ * page may contain {@code null} cells that have not been resolved yet, or that
+ * have been invalidated because their appearance changed.
+ *
+ * This class is not thread-safe.
+ */
+public final class GlyphCache {
+
+    private record Page(String map, int x, int y) {}
+
+    private final Map<Page, TextCharacter[]> pages;
+    private int pageWidth;
+    private int pageHeight;
+
+    /**
+     * Constructor.
+     *
+     * @param maxPages the maximum number of pages to keep
+     */
+    public GlyphCache(int maxPages) {
+        super();
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = -2516476271707395617L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Page, TextCharacter[]> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    /**
+     * Set the page size, clearing all cached pages if the size has changed.
+     *
+     * @param width  the page width
+     * @param height the page height
+     */
+    public void resize(int width, int height) {
+        if (width != pageWidth || height != pageHeight) {
+            pages.clear();
+            pageWidth = width;
+            pageHeight = height;
+        }
+    }
+
+    /**
+     * Get the page width.
+     *
+     * @return the width
+     */
+    public int pageWidth() {
+        return pageWidth;
+    }
+
+    /**
+     * Get the page height.
+     *
+     * @return the height
+     */
+    public int pageHeight() {
+        return pageHeight;
+    }
+
+    /**
+     * Get a page, creating an empty page if not already cached.
+     *
+     * @param map   the map name
+     * @param pageX the page x index, i.e. the map x coordinate divided by the page
+     *              width
+     * @param pageY the page y index, i.e. the map y coordinate divided by the page
+     *              height
+     * @return the page glyphs, in row-major order
+     */
+    public TextCharacter[] page(String map, int pageX, int pageY) {
+        return pages.computeIfAbsent(new Page(map, pageX, pageY), k -> new TextCharacter[pageWidth * pageHeight]);
+    }
+
+    /**
+     * Invalidate the glyph for a single map cell.
+     *
+     * @param map the map name
+     * @param x   the map x coordinate
+     * @param y   the map y coordinate
+     */
+    public void invalidate(String map, int x, int y) {
+        if (pageWidth < 1 || pageHeight < 1) {
+            return;
+        }
+        final TextCharacter[] page =
+                pages.get(new Page(map, Math.floorDiv(x, pageWidth), Math.floorDiv(y, pageHeight)));
+        if (page != null) {
+            page[Math.floorMod(y, pageHeight) * pageWidth + Math.floorMod(x, pageWidth)] = null;
+        }
+    }
+
+    /**
+     * Clear all cached pages.
+     */
+    public void clear() {
+        pages.clear();
+    }
+
+    /**
+     * Get the number of cached pages.
+     *
+     * @return the page count
+     */
+    public int size() {
+        return pages.size();
+    }
+}
@@ -18,9 +18,9 @@ public class HealthPane implements Pane {
     /**
      * Constructor.
      *
-     * @param game        the game
-     * @param rightOffset the width
-     * @param height      the height
+     * @param game   the game
+     * @param width  the width
+     * @param height the height
      * @throws IllegalArgumentException if any argument is {@code null}
      */
     public HealthPane(Game game, int width, int height) {
@@ -32,22 +32,22 @@ public class HealthPane implements Pane {
 
     @Override
     public int top() {
-        return game.screen().getTerminalSize().getRows() - height - 1;
+        return game.layout().health().top();
     }
 
     @Override
     public int left() {
-        return game.screen().getTerminalSize().getColumns() - width - 1;
+        return game.layout().health().left();
     }
 
     @Override
     public int bottom() {
-        return game.screen().getTerminalSize().getRows() - 1;
+        return game.layout().health().bottom();
     }
 
     @Override
     public int right() {
-        return game.screen().getTerminalSize().getColumns() - 1;
+        return game.layout().health().right();
     }
 
     @Override
@@ -2,8 +2,6 @@ package coding101.tq;
 
 import static coding101.tq.domain.ColorPalette.color;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toList;
 
 import coding101.tq.domain.PlayerItems;
 import coding101.tq.domain.items.InventoryItem;
@@ -12,7 +10,6 @@ import com.googlecode.lanterna.Symbols;
 import com.googlecode.lanterna.TextColor.ANSI;
 import java.text.NumberFormat;
 import java.util.Collection;
-import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.MissingResourceException;
@@ -26,44 +23,40 @@ public class InfoPane implements Pane {
 
     private final Game game;
     private final int width;
-    private final int bottomOffset;
 
     private int scrollOffset = 0; // used to "scroll" display
 
     /**
      * Constructor.
      *
-     * @param game         the game
-     * @param rightOffset  the width
-     * @param bottomOffset the height to offset the bottom from the screen
-     *                     dimensions
+     * @param game  the game
+     * @param width the width
      * @throws IllegalArgumentException if any argument is {@code null}
      */
-    public InfoPane(Game game, int width, int bottomOffset) {
+    public InfoPane(Game game, int width) {
         super();
         this.game = requireNonNull(game);
         this.width = width;
-        this.bottomOffset = bottomOffset;
     }
 
     @Override
     public int top() {
-        return 3;
+        return game.layout().info().top();
     }
 
     @Override
     public int left() {
-        return game.screen().getTerminalSize().getColumns() - width - 1;
+        return game.layout().info().left();
     }
 
     @Override
     public int bottom() {
-        return game.screen().getTerminalSize().getRows() - bottomOffset;
+        return game.layout().info().bottom();
     }
 
     @Override
     public int right() {
-        return game.screen().getTerminalSize().getColumns() - 2;
+        return game.layout().info().right();
     }
 
     @Override
@@ -134,9 +127,7 @@ public class InfoPane implements Pane {
      * @return the equipped items grouped by type
      */
     public Map<ItemType, List<InventoryItem>> equippedItemsByType() {
-        return game.player().getItems().getItems().stream()
-                .filter(InventoryItem::isEquipped)
-                .collect(groupingBy(InventoryItem::type, () -> new EnumMap<>(ItemType.class), toList()));
+        return game.player().getItems().equippedItemsByType();
     }
 
     /**
@@ -148,9 +139,7 @@ public class InfoPane implements Pane {
      * @return the equipped items grouped by type
      */
     public Map<ItemType, List<InventoryItem>> equipableItemsByType() {
-        return game.player().getItems().getItems().stream()
-                .filter(item -> !item.isEquipped())
-                .collect(groupingBy(InventoryItem::type, () -> new EnumMap<>(ItemType.class), toList()));
+        return game.player().getItems().equipableItemsByType();
     }
 
     /**
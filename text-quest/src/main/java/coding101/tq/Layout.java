@@ -0,0 +1,84 @@
+package coding101.tq;
+
+import com.googlecode.lanterna.TerminalSize;
+
+/**
+ * A snapshot of the screen layout: the bounds of every pane, for a given
+ * terminal size.
+ *
+ * A layout is computed once each time the terminal size changes, so panes can
+ * look up their bounds without querying the terminal size.
+ *
+ * @param columns the terminal column count
+ * @param rows    the terminal row count
+ * @param ui      the bounds of the entire UI, inside the outer border
+ * @param map     the map pane bounds, also used by the shop pane
+ * @param info    the info pane bounds
+ * @param status  the status pane bounds
+ * @param health  the health pane bounds
+ */
+public record Layout(int columns, int rows, Bounds ui, Bounds map, Bounds info, Bounds status, Bounds health) {
+
+    /**
+     * The bounds of a rectangular portion of the screen.
+     *
+     * @param top    the top row
+     * @param left   the left column
+     * @param bottom the bottom row
+     * @param right  the right column
+     */
+    public record Bounds(int top, int left, int bottom, int right) {
+
+        /**
+         * Get the width.
+         *
+         * @return the width
+         */
+        public int width() {
+            return right - left + 1;
+        }
+
+        /**
+         * Get the height.
+         *
+         * @return the height
+         */
+        public int height() {
+            return bottom - top + 1;
+        }
+
+        /**
+         * Test if a screen position is within these bounds.
+         *
+         * @param col the screen column
+         * @param row the screen row
+         * @return {@code true} if the position is within the bounds
+         */
+        public boolean contains(int col, int row) {
+            return (col >= left && col <= right && row >= top && row <= bottom);
+        }
+    }
+
+    /**
+     * Compute the layout for a terminal size.
+     *
+     * @param size         the terminal size
+     * @param infoWidth    the info pane width
+     * @param statusHeight the status pane height
+     * @return the layout
+     */
+    public static Layout of(TerminalSize size, int infoWidth, int statusHeight) {
+        final int columns = size.getColumns();
+        final int rows = size.getRows();
+        final int mapRight = columns - infoWidth - 3;
+        final int mapBottom = rows - statusHeight - 3;
+        return new Layout(
+                columns,
+                rows,
+                new Bounds(1, 1, rows - 1, columns - 1),
+                new Bounds(1, 1, mapBottom, mapRight),
+                new Bounds(3, columns - infoWidth - 1, mapBottom, columns - 2),
+                new Bounds(rows - statusHeight - 1, 1, rows - 1, mapRight),
+                new Bounds(rows - statusHeight - 1, columns - infoWidth - 1, rows - 1, columns - 1));
+    }
+}
@@ -3,154 +3,347 @@ package coding101.tq;
 import static coding101.tq.domain.ColorPalette.color;
 import static java.util.Objects.requireNonNull;
 
+import coding101.tq.domain.ColorScheme;
+import coding101.tq.domain.Coordinate;
 import coding101.tq.domain.Player;
+import coding101.tq.domain.TerrainColors;
 import coding101.tq.domain.TerrainMap;
 import coding101.tq.domain.TerrainType;
 import com.googlecode.lanterna.Symbols;
+import com.googlecode.lanterna.TextCharacter;
 import com.googlecode.lanterna.TextColor;
 import com.googlecode.lanterna.TextColor.ANSI;
+import com.googlecode.lanterna.screen.Screen;
+import java.util.Arrays;
 
 /**
  * The UI map pane.
+ *
+ * The pane keeps track of "damaged" map cells, whose appearance has changed
+ * since they were last drawn. Calling {@link #repair()} redraws just those
+ * cells, unless the visible portion of the map has changed, in which case the
+ * entire pane is redrawn.
+ *
+ * By default the map is shown in pages the size of the pane, jumping to a new
+ * page when the player moves off the current one. In scroll mode the player is
+ * kept in the centre of the pane instead: as the player moves the content
+ * already drawn is shifted over, and only the newly exposed edge of the map is
+ * drawn.
+ *
+ * The resolved glyph of every drawn map cell is cached in pages the size of the
+ * pane, so drawing a part of the map drawn before copies the cached glyphs to
+ * the screen. Damaging a cell also invalidates its cached glyph.
  */
 public final class MapPane implements Pane {
 
+    /** The maximum number of glyph pages to cache. */
+    public static final int GLYPH_CACHE_MAX_PAGES = 16;
+
     private final Game game;
-    private final int rightOffset;
-    private final int bottomOffset;
+    private final TerrainColors terrainColors;
+    private final TextColor playerForeground;
+    private final TextColor playerBackground;
+    private final boolean scroll;
+    private final GlyphCache glyphs = new GlyphCache(GLYPH_CACHE_MAX_PAGES);
+
+    // the map and view origin last drawn, to detect when a full redraw is needed
+    private TerrainMap drawnMap;
+    private int drawnStartX = -1;
+    private int drawnStartY = -1;
+    private int drawnWidth;
+    private int drawnHeight;
+    private int drawnPlayerX;
+    private int drawnPlayerY;
+
+    // the packed map coordinates of damaged cells
+    private long[] damaged = new long[16];
+    private int damagedCount;
 
     /**
      * Constructor.
      *
-     * @param game         the game
-     * @param rightOffset  the width to offset the right from the screen dimensions
-     * @param bottomOffset the height to offset the bottom from the screen
-     *                     dimensions
+     * @param game the game
      * @throws IllegalArgumentException if any argument is {@code null}
      */
-    public MapPane(Game game, int rightOffset, int bottomOffset) {
+    public MapPane(Game game) {
         super();
         this.game = requireNonNull(game);
-        this.rightOffset = rightOffset;
-        this.bottomOffset = bottomOffset;
+
+        // resolve colors once, to avoid parsing colors while drawing
+        final ColorScheme colors = game.settings().colors();
+        this.terrainColors = new TerrainColors(colors, ANSI.WHITE_BRIGHT, ANSI.BLACK);
+        this.playerForeground = color(colors.foreground().player(), ANSI.WHITE_BRIGHT);
+        this.playerBackground = color(colors.background().player(), ANSI.MAGENTA_BRIGHT);
+        this.scroll = game.player().config().scroll();
     }
 
     @Override
     public int top() {
-        return 1;
+        return game.layout().map().top();
     }
 
     @Override
     public int left() {
-        return 1;
+        return game.layout().map().left();
     }
 
     @Override
     public int bottom() {
-        return game.screen().getTerminalSize().getRows() - bottomOffset;
+        return game.layout().map().bottom();
     }
 
     @Override
     public int right() {
-        return game.screen().getTerminalSize().getColumns() - rightOffset;
+        return game.layout().map().right();
+    }
+
+    @Override
+    public int width() {
+        return game.layout().map().width();
+    }
+
+    @Override
+    public int height() {
+        return game.layout().map().height();
     }
 
     @Override
     public void draw() {
-        drawMapForPoint(game.map(), game.player().getX(), game.player().getY());
-        drawPlayer(game.player());
+        damageAll();
+        repair();
     }
 
     /**
-     * Specialized routine to move a player and re-draw the map.
+     * Mark a map cell as damaged, so it is redrawn by the next {@link #repair()}.
      *
-     * @param newX the new X position
-     * @param newY the new Y position
-     * @return {@code true} if visiting the coordinate for the first time
+     * @param x the map x coordinate
+     * @param y the map y coordinate
      */
-    public boolean movePlayer(int newX, int newY) {
-        // draw old position terrain
-        final int paneWidth = width();
-        final int paneHeight = height();
-        final int paneTop = top();
-        final int paneLeft = left();
-        final int startX = (game.player().getX() / paneWidth) * paneWidth;
-        final int startY = (game.player().getY() / paneHeight) * paneHeight;
+    public void damage(int x, int y) {
+        glyphs.invalidate(game.map().getName(), x, y);
+        markDamaged(x, y);
+    }
 
-        final int newStartX = (newX / paneWidth) * paneWidth;
-        final int newStartY = (newY / paneHeight) * paneHeight;
+    private void markDamaged(int x, int y) {
+        if (damagedCount == damaged.length) {
+            damaged = Arrays.copyOf(damaged, damaged.length * 2);
+        }
+        damaged[damagedCount++] = Coordinate.pack(x, y);
+    }
+
+    /**
+     * Mark the map cells surrounding a point, including the point itself, as
+     * damaged.
+     *
+     * @param x the map x coordinate
+     * @param y the map y coordinate
+     */
+    public void damageSurrounding(int x, int y) {
+        for (int row = y - 1; row <= y + 1; row++) {
+            for (int col = x - 1; col <= x + 1; col++) {
+                damage(col, row);
+            }
+        }
+    }
 
-        boolean result = game.player().moveTo(game.map(), newX, newY);
+    /**
+     * Mark the entire pane as damaged, so it is fully redrawn by the next
+     * {@link #repair()}.
+     */
+    public void damageAll() {
+        drawnMap = null;
+        damagedCount = 0;
+    }
 
-        if (newStartX != startX || newStartY != startY) {
-            // redraw entire map
-            drawMapForPoint(game.map(), newX, newY);
+    /**
+     * Redraw all damaged map cells, and the player.
+     *
+     * @return {@code true} if the entire pane was redrawn or scrolled,
+     *         {@code false} if only damaged cells were redrawn
+     */
+    public boolean repair() {
+        final TerrainMap map = game.map();
+        final Player player = game.player();
+        final int paneWidth = width();
+        final int paneHeight = height();
+        final int startX = viewStart(player.getX(), paneWidth);
+        final int startY = viewStart(player.getY(), paneHeight);
+        glyphs.resize(paneWidth, paneHeight);
+        final int dx = startX - drawnStartX;
+        final int dy = startY - drawnStartY;
+        final boolean full = (map != drawnMap
+                || paneWidth != drawnWidth
+                || paneHeight != drawnHeight
+                || Math.abs(dx) >= paneWidth
+                || Math.abs(dy) >= paneHeight
+                || (!scroll && (dx != 0 || dy != 0)));
+        if (full) {
+            drawMap(map, startX, startY);
+            drawnMap = map;
+            drawnWidth = paneWidth;
+            drawnHeight = paneHeight;
         } else {
-            game.map().walkSurrounding(newX, newY, (col, row, t) -> {
-                drawTerrain(col, row, col - startX + paneLeft, row - startY + paneTop, t);
-            });
+            if (dx != 0 || dy != 0) {
+                scrollContent(map, startX, startY, dx, dy);
+            }
+
+            // the player is drawn over the map, so restore the terrain where it was last drawn
+            markDamaged(drawnPlayerX, drawnPlayerY);
+
+            for (int i = 0; i < damagedCount; i++) {
+                final int x = Coordinate.unpackX(damaged[i]);
+                final int y = Coordinate.unpackY(damaged[i]);
+                if (x < startX || y < startY || x >= startX + paneWidth || y >= startY + paneHeight) {
+                    continue;
+                }
+                drawRegion(map, startX, startY, x, y, 1, 1);
+            }
         }
-        drawPlayer(game.player());
-        return result;
+        drawnStartX = startX;
+        drawnStartY = startY;
+        drawnPlayerX = player.getX();
+        drawnPlayerY = player.getY();
+        damagedCount = 0;
+        drawPlayer(player, startX, startY);
+        return (full || dx != 0 || dy != 0);
     }
 
-    private void drawMapForPoint(TerrainMap map, int x, int y) {
+    private int viewStart(int pos, int size) {
+        return (scroll ? pos - size / 2 : (pos / size) * size);
+    }
+
+    /**
+     * Shift the map content already drawn on the screen by an offset, and then
+     * draw the newly exposed edges of the map.
+     *
+     * @param map    the map
+     * @param startX the new map x coordinate shown in the left column
+     * @param startY the new map y coordinate shown in the top row
+     * @param dx     the offset from the previous view x coordinate
+     * @param dy     the offset from the previous view y coordinate
+     */
+    private void scrollContent(TerrainMap map, int startX, int startY, int dx, int dy) {
+        final Screen screen = game.screen();
         final int paneWidth = width();
         final int paneHeight = height();
         final int paneTop = top();
         final int paneLeft = left();
-        final int startX = (x / paneWidth) * paneWidth;
-        final int startY = (y / paneHeight) * paneHeight;
-        map.walk(startX, startY, paneWidth, paneHeight, (col, row, t) -> {
-            drawTerrain(col, row, col - startX + paneLeft, row - startY + paneTop, t);
-        });
+
+        // copy in an order that reads every cell before it is overwritten
+        for (int i = 0, rows = paneHeight - Math.abs(dy); i < rows; i++) {
+            final int row = paneTop + (dy >= 0 ? i : paneHeight - 1 - i);
+            for (int j = 0, cols = paneWidth - Math.abs(dx); j < cols; j++) {
+                final int col = paneLeft + (dx >= 0 ? j : paneWidth - 1 - j);
+                screen.setCharacter(col, row, screen.getBackCharacter(col + dx, row + dy));
+            }
+        }
+
+        if (dx > 0) {
+            drawRegion(map, startX, startY, startX + paneWidth - dx, startY, dx, paneHeight);
+        } else if (dx < 0) {
+            drawRegion(map, startX, startY, startX, startY, -dx, paneHeight);
+        }
+        if (dy > 0) {
+            drawRegion(map, startX, startY, startX, startY + paneHeight - dy, paneWidth, dy);
+        } else if (dy < 0) {
+            drawRegion(map, startX, startY, startX, startY, paneWidth, -dy);
+        }
     }
 
-    private void drawTerrain(int x, int y, int screenCol, int screenRow, TerrainType t) {
-        if (screenCol < left() || screenCol > right() || screenRow < top() || screenRow > bottom()) {
-            return;
+    /**
+     * Mark the map cells affected by the player moving as damaged.
+     *
+     * Call this after the player has moved by a single cell, and then call
+     * {@link #repair()} to redraw the map.
+     */
+    public void playerMoved() {
+        // the old position, any moved vehicle, and newly revealed terrain are all
+        // within the cells surrounding the new position
+        damageSurrounding(game.player().getX(), game.player().getY());
+    }
+
+    private void drawMap(TerrainMap map, int startX, int startY) {
+        drawRegion(map, startX, startY, startX, startY, width(), height());
+    }
+
+    /**
+     * Draw a region of the map, copying each glyph from the cached pages and
+     * resolving any glyphs not already cached.
+     *
+     * @param map    the map
+     * @param startX the map x coordinate shown in the left column
+     * @param startY the map y coordinate shown in the top row
+     * @param x      the map x coordinate of the region to draw
+     * @param y      the map y coordinate of the region to draw
+     * @param width  the width of the region to draw
+     * @param height the height of the region to draw
+     */
+    private void drawRegion(TerrainMap map, int startX, int startY, int x, int y, int width, int height) {
+        final Screen screen = game.screen();
+        final int colOffset = left() - startX;
+        final int rowOffset = top() - startY;
+        final int pageWidth = glyphs.pageWidth();
+        final int pageHeight = glyphs.pageHeight();
+        final int maxX = x + width;
+        final int maxY = y + height;
+        for (int pageY = Math.floorDiv(y, pageHeight); pageY * pageHeight < maxY; pageY++) {
+            final int minRow = Math.max(y, pageY * pageHeight);
+            final int maxRow = Math.min(maxY, (pageY + 1) * pageHeight);
+            for (int pageX = Math.floorDiv(x, pageWidth); pageX * pageWidth < maxX; pageX++) {
+                final int minCol = Math.max(x, pageX * pageWidth);
+                final int maxCol = Math.min(maxX, (pageX + 1) * pageWidth);
+                final TextCharacter[] page = glyphs.page(map.getName(), pageX, pageY);
+                for (int row = minRow; row < maxRow; row++) {
+                    int i = (row - pageY * pageHeight) * pageWidth + (minCol - pageX * pageWidth);
+                    for (int col = minCol; col < maxCol; col++, i++) {
+                        TextCharacter glyph = page[i];
+                        if (glyph == null) {
+                            glyph = resolveGlyph(map, col, row);
+                            page[i] = glyph;
+                        }
+                        screen.setCharacter(col + colOffset, row + rowOffset, glyph);
+                    }
+                }
+            }
         }
+    }
+
+    private TextCharacter resolveGlyph(TerrainMap map, int x, int y) {
+        final TerrainType t = (x >= 0 && y >= 0 && x < map.width() && y < map.height() ? map.terrainAt(x, y) : null);
+
         // show the terrain if the revealMap config active, or if visited "near"
         final boolean visited =
-                game.player().config().revealMap() || game.player().hasVisitedNear(game.map(), x, y);
+                game.player().config().revealMap() || game.player().hasVisitedNear(map, x, y);
         char c = t != null ? t.getKey() : TerrainType.EMPTY;
-        TextColor bg = game.settings().colors().background().terrain(t, ANSI.BLACK);
-        TextColor fg = game.settings().colors().foreground().terrain(t, ANSI.WHITE_BRIGHT);
+        TextColor bg = terrainColors.background(t);
+        TextColor fg = terrainColors.foreground(t);
         if (!visited) {
             bg = ANSI.BLACK;
             c = TerrainType.EMPTY;
         } else if (c == TerrainType.WALL_CORNER || c == TerrainType.WALL_HORIZONTAL || c == TerrainType.WALL_VERTICAL) {
             c = Symbols.BLOCK_SOLID;
-        } else if (c == TerrainType.CHEST && game.player().hasInteracted(game.map(), x, y)) {
+        } else if (c == TerrainType.CHEST && game.player().hasInteracted(map, x, y)) {
             // this chest has been opened; draw with a different color
-            fg = color(game.settings().colors().foreground().cave(), ANSI.WHITE_BRIGHT);
-        } else if (c == TerrainType.SHIP && !game.player().vehicleLocatedAt(game.map(), x, y)) {
+            fg = terrainColors.foreground(TerrainType.Cave);
+        } else if (c == TerrainType.SHIP && !game.player().vehicleLocatedAt(map, x, y)) {
             // ship no longer at this spot, draw water instead
             c = TerrainType.WATER;
-            bg = game.settings().colors().background().terrain(TerrainType.Water, ANSI.BLACK);
-            fg = game.settings().colors().foreground().terrain(TerrainType.Water, ANSI.WHITE_BRIGHT);
-        } else if (c == TerrainType.WATER && game.player().vehicleLocatedAt(game.map(), x, y)) {
+            bg = terrainColors.background(TerrainType.Water);
+            fg = terrainColors.foreground(TerrainType.Water);
+        } else if (c == TerrainType.WATER && game.player().vehicleLocatedAt(map, x, y)) {
             // ship is at this spot, draw ship instead
             c = TerrainType.SHIP;
-            bg = game.settings().colors().background().terrain(TerrainType.Ship, ANSI.BLACK);
-            fg = game.settings().colors().foreground().terrain(TerrainType.Ship, ANSI.WHITE_BRIGHT);
+            bg = terrainColors.background(TerrainType.Ship);
+            fg = terrainColors.foreground(TerrainType.Ship);
         }
-        game.textGraphics().setBackgroundColor(bg);
-        game.textGraphics().setForegroundColor(fg);
-        game.textGraphics().setCharacter(screenCol, screenRow, c);
+        return TextCharacter.fromCharacter(c, fg, bg)[0];
     }
 
-    private void drawPlayer(Player player) {
-        final int paneWidth = width();
-        final int paneHeight = height();
+    private void drawPlayer(Player player, int startX, int startY) {
         final int paneTop = top();
         final int paneLeft = left();
-        final int startX = (player.getX() / paneWidth) * paneWidth;
-        final int startY = (player.getY() / paneHeight) * paneHeight;
-        game.textGraphics()
-                .setForegroundColor(color(game.settings().colors().foreground().player(), ANSI.WHITE_BRIGHT));
-        game.textGraphics()
-                .setBackgroundColor(color(game.settings().colors().background().player(), ANSI.MAGENTA_BRIGHT));
+        game.textGraphics().setForegroundColor(playerForeground);
+        game.textGraphics().setBackgroundColor(playerBackground);
         game.textGraphics().setCharacter(player.getX() - startX + paneLeft, player.getY() - startY + paneTop, '@');
     }
 }
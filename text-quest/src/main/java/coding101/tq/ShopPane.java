@@ -22,21 +22,18 @@ import java.util.Objects;
 public class ShopPane implements Pane {
 
     private final Game game;
-    private final int rightOffset;
-    private final int bottomOffset;
     private final Shop shop;
 
     /**
      * Constructor.
      *
+     * @param game the game
      * @param shop the shop
      * @throws IllegalArgumentException if any argument is {@code null}
      */
-    public ShopPane(Game game, int rightOffset, int bottomOffset, Shop shop) {
+    public ShopPane(Game game, Shop shop) {
         super();
         this.game = requireNonNull(game);
-        this.rightOffset = rightOffset;
-        this.bottomOffset = bottomOffset;
         this.shop = Objects.requireNonNull(shop);
     }
 
@@ -51,22 +48,22 @@ public class ShopPane implements Pane {
 
     @Override
     public int top() {
-        return 1;
+        return game.layout().map().top();
     }
 
     @Override
     public int left() {
-        return 1;
+        return game.layout().map().left();
     }
 
     @Override
     public int bottom() {
-        return game.screen().getTerminalSize().getRows() - bottomOffset;
+        return game.layout().map().bottom();
     }
 
     @Override
     public int right() {
-        return game.screen().getTerminalSize().getColumns() - rightOffset;
+        return game.layout().map().right();
     }
 
     @Override
@@ -14,51 +14,55 @@ import java.util.TimerTask;
 
 /**
  * The UI status pane.
+ *
+ * Messages can be cleared after a delay. The timer only marks the message as
+ * due to be cleared; the game thread clears it, via {@link #clearIfDue()} or
+ * the next {@link #draw()}, so the timer never draws or writes to the screen.
  */
 public class StatusPane implements Pane {
 
     private final Game game;
-    private final int rightOffset;
     private final int height;
     private final Timer timer;
     private String message;
     private TimerTask statusTask;
 
+    // the clear task that has run, set by the timer thread
+    private volatile TimerTask clearDue;
+
     /**
      * Constructor.
      *
-     * @param game        the game
-     * @param rightOffset the width to offset the right from the screen dimensions
-     * @param height      the height
-     * @param timer       a timer for status background tasks
+     * @param game   the game
+     * @param height the height
+     * @param timer  a timer to schedule message clears with
      * @throws IllegalArgumentException if any argument is {@code null}
      */
-    public StatusPane(Game game, int rightOffset, int height, Timer timer) {
+    public StatusPane(Game game, int height, Timer timer) {
         super();
         this.game = requireNonNull(game);
-        this.rightOffset = rightOffset;
         this.height = height;
         this.timer = requireNonNull(timer);
     }
 
     @Override
     public int top() {
-        return game.screen().getTerminalSize().getRows() - height - 1;
+        return game.layout().status().top();
     }
 
     @Override
     public int left() {
-        return 1;
+        return game.layout().status().left();
     }
 
     @Override
     public int bottom() {
-        return game.screen().getTerminalSize().getRows() - 1;
+        return game.layout().status().bottom();
     }
 
     @Override
     public int right() {
-        return game.screen().getTerminalSize().getColumns() - rightOffset;
+        return game.layout().status().right();
     }
 
     @Override
@@ -86,7 +90,43 @@ public class StatusPane implements Pane {
 
     @Override
     public void draw() {
+        takeDueClear();
+        draw(message);
+    }
+
+    /**
+     * Test if a message is scheduled to be cleared.
+     *
+     * @return {@code true} if a message is scheduled to be cleared
+     */
+    public boolean clearScheduled() {
+        return statusTask != null;
+    }
+
+    /**
+     * Clear the message, if its clear delay has passed.
+     *
+     * @return {@code true} if the message was cleared, and the screen needs
+     *         refreshing
+     */
+    public boolean clearIfDue() {
+        if (!takeDueClear()) {
+            return false;
+        }
         draw(message);
+        return true;
+    }
+
+    private boolean takeDueClear() {
+        final TimerTask task = statusTask;
+        if (task == null || clearDue != task) {
+            // nothing scheduled, not due yet, or due from a message already replaced
+            return false;
+        }
+        statusTask = null;
+        clearDue = null;
+        setMessage(null);
+        return true;
     }
 
     private void draw(String message) {
@@ -118,6 +158,7 @@ public class StatusPane implements Pane {
         final TimerTask statusTask = this.statusTask;
         if (statusTask != null) {
             statusTask.cancel();
+            this.statusTask = null;
         }
         setMessage(message);
         if (message == null) {
@@ -158,13 +199,8 @@ public class StatusPane implements Pane {
 
                 @Override
                 public void run() {
-                    setMessage(null);
-                    draw();
-                    try {
-                        game.screen().refresh();
-                    } catch (IOException e) {
-                        // ignore
-                    }
+                    // only mark as due; the game thread clears the message
+                    clearDue = this;
                 }
             };
             timer.schedule(tt, clearAfterSecs * 1000L);
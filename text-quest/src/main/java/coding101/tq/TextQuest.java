@@ -2,6 +2,8 @@ package coding101.tq;
 
 import static coding101.tq.util.CommandLineGameConfiguration.printErrorAndExit;
 
+import coding101.tq.GameEngine.Outcome;
+import coding101.tq.GameEngine.Result;
 import coding101.tq.domain.ColorScheme;
 import coding101.tq.domain.Coordinate;
 import coding101.tq.domain.Player;
@@ -9,14 +11,18 @@ import coding101.tq.domain.PlayerItems;
 import coding101.tq.domain.Settings;
 import coding101.tq.domain.Shop;
 import coding101.tq.domain.TerrainMap;
-import coding101.tq.domain.TerrainType;
 import coding101.tq.domain.items.InventoryItem;
+import coding101.tq.util.BackgroundSaver;
 import coding101.tq.util.BitSetJson;
 import coding101.tq.util.CommandLineGameConfiguration;
 import coding101.tq.util.CoordinateJson;
+import coding101.tq.util.InputRecorder;
+import coding101.tq.util.InputReplay;
 import coding101.tq.util.Persistence;
 import coding101.tq.util.PlayerItemsJson;
 import coding101.tq.util.TerrainMapBuilder;
+import coding101.tq.util.TerrainMapCache;
+import coding101.tq.util.TerrainMapPrefetcher;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -29,19 +35,25 @@ import com.googlecode.lanterna.screen.Screen;
 import com.googlecode.lanterna.screen.TerminalScreen;
 import com.googlecode.lanterna.terminal.DefaultTerminalFactory;
 import com.googlecode.lanterna.terminal.Terminal;
+import com.googlecode.lanterna.terminal.virtual.DefaultVirtualTerminal;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
+import java.util.Random;
 import java.util.ResourceBundle;
 import java.util.Timer;
-import java.util.regex.Matcher;
+import java.util.concurrent.CompletableFuture;
+import java.util.random.RandomGenerator;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
@@ -58,7 +70,14 @@ public class TextQuest {
 
     private static int MESSAGE_CLEAR_DELAY = 2;
 
-    private static final int SHIP_COST = 100;
+    // the maximum number of child map terrain cells to keep cached
+    private static final long CHILD_MAP_CACHE_MAX_CELLS = 4L * 1024 * 1024;
+
+    // the distance from the player to prefetch child maps within
+    private static final int CHILD_MAP_PREFETCH_DISTANCE = 3;
+
+    // the milliseconds to wait between polls for input, while a UI update is pending
+    private static final long INPUT_POLL_MILLIS = 50;
 
     private static char INTERACT_KEY = ' ';
     private static char SAVE_KEY = 's';
@@ -74,8 +93,14 @@ public class TextQuest {
     private final Timer timer;
     private final GameImpl game;
     private final GameUI ui;
-    private TerrainMap activeMap;
-    private Path savePath;
+    private final TerrainMapPrefetcher childMaps;
+    private final GameEngine engine;
+    private BackgroundSaver saves;
+
+    // the saves not yet reported to the player, oldest first
+    private final Deque<CompletableFuture<Boolean>> pendingSaves = new ArrayDeque<>(2);
+    private InputRecorder recorder;
+    private InputReplay replay;
 
     /**
      * Constructor.
@@ -88,6 +113,60 @@ public class TextQuest {
      * @throws IllegalArgumentException if any argument is {@literal null}
      */
     public TextQuest(Screen screen, Settings settings, TerrainMap mainMap, Player player, ObjectMapper mapper) {
+        this(screen, settings, mainMap, player, mapper, new Random());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param screen   the screen to render to
+     * @param settings the game settings
+     * @param mainMap  the main map
+     * @param player   the player
+     * @param mapper   the JSON mapper
+     * @param random   the random number generator for game chance
+     * @throws IllegalArgumentException if any argument is {@literal null}
+     */
+    public TextQuest(
+            Screen screen,
+            Settings settings,
+            TerrainMap mainMap,
+            Player player,
+            ObjectMapper mapper,
+            RandomGenerator random) {
+        this(
+                screen,
+                settings,
+                mainMap,
+                player,
+                mapper,
+                random,
+                new Timer("TQ Tasks", true),
+                childMapPrefetcher(mainMap));
+    }
+
+    /**
+     * Constructor for games that share background resources with other games.
+     *
+     * @param screen    the screen to render to
+     * @param settings  the game settings
+     * @param mainMap   the main map
+     * @param player    the player
+     * @param mapper    the JSON mapper
+     * @param random    the random number generator for game chance
+     * @param timer     the timer for background UI tasks
+     * @param childMaps the child map prefetcher
+     * @throws IllegalArgumentException if any argument is {@literal null}
+     */
+    TextQuest(
+            Screen screen,
+            Settings settings,
+            TerrainMap mainMap,
+            Player player,
+            ObjectMapper mapper,
+            RandomGenerator random,
+            Timer timer,
+            TerrainMapPrefetcher childMaps) {
         super();
         this.screen = Objects.requireNonNull(screen);
         this.settings = Objects.requireNonNull(settings);
@@ -96,15 +175,11 @@ public class TextQuest {
         this.mapper = Objects.requireNonNull(mapper);
         this.graphics = screen.newTextGraphics();
         this.bundle = ResourceBundle.getBundle(getClass().getName());
-        this.timer = new Timer("TQ Tasks", true);
+        this.timer = Objects.requireNonNull(timer);
         this.game = new GameImpl();
         this.ui = new GameUI(this.game, this.timer, INFO_PANE_WIDTH, STATUS_PANE_HEIGHT);
-
-        if (player.getActiveMapName().equals(mainMap.getName())) {
-            this.activeMap = mainMap;
-        } else {
-            this.activeMap = loadChildMap(player.getActiveMapName());
-        }
+        this.childMaps = Objects.requireNonNull(childMaps);
+        this.engine = new GameEngine(settings, mainMap, player, this::loadChildMap, random);
     }
 
     private class GameImpl implements Game {
@@ -136,12 +211,17 @@ public class TextQuest {
 
         @Override
         public TerrainMap map() {
-            return activeMap;
+            return engine.map();
+        }
+
+        @Override
+        public Layout layout() {
+            return ui.layout();
         }
 
         @Override
         public boolean readYesNo() throws IOException {
-            KeyStroke keyStroke = screen.readInput();
+            KeyStroke keyStroke = readInput();
             KeyType keyType = keyStroke != null ? keyStroke.getKeyType() : null;
             if (keyType == KeyType.Enter) {
                 return true;
@@ -151,7 +231,7 @@ public class TextQuest {
 
         @Override
         public char readCharacter() throws IOException {
-            KeyStroke keyStroke = screen.readInput();
+            KeyStroke keyStroke = readInput();
             KeyType keyType = keyStroke != null ? keyStroke.getKeyType() : null;
             if (keyType == KeyType.Character) {
                 return keyStroke.getCharacter();
@@ -163,7 +243,7 @@ public class TextQuest {
         public Integer readInteger(int x, int y) throws IOException {
             StringBuilder buf = new StringBuilder();
             while (true) {
-                KeyStroke keyStroke = screen.readInput();
+                KeyStroke keyStroke = readInput();
                 KeyType keyType = keyStroke != null ? keyStroke.getKeyType() : null;
                 if (keyType == KeyType.Character) {
                     final char c = keyStroke.getCharacter();
@@ -172,7 +252,7 @@ public class TextQuest {
                         ui.status().drawCharacter(x++, y, c);
                         screen().refresh();
                     }
-                } else if (keyType == KeyType.Enter) {
+                } else if (keyType == KeyType.Enter || keyType == KeyType.EOF) {
                     break;
                 }
             }
@@ -187,8 +267,55 @@ public class TextQuest {
         }
     }
 
-    private void setSavePath(Path path) {
-        this.savePath = Objects.requireNonNull(path);
+    private void setSavePath(Persistence persistence, Path path) {
+        if (this.saves != null) {
+            this.saves.close();
+        }
+        this.saves = new BackgroundSaver(persistence, path);
+
+        // only track changes when saving, as otherwise they are never taken
+        player.trackChanges();
+    }
+
+    private void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    private void setReplay(InputReplay replay) {
+        this.replay = replay;
+    }
+
+    private KeyStroke readInput() throws IOException {
+        // read from the replay when replaying, otherwise the screen
+        final KeyStroke keyStroke = (replay != null ? replay.next() : readScreenInput());
+        if (recorder != null) {
+            recorder.record(keyStroke);
+        }
+        return keyStroke;
+    }
+
+    private KeyStroke readScreenInput() throws IOException {
+        // poll while a UI update is pending, so it is applied on this thread without waiting for input
+        while (!pendingSaves.isEmpty() || ui.status().clearScheduled()) {
+            boolean updated = reportSaves();
+            if (ui.status().clearIfDue()) {
+                updated = true;
+            }
+            if (updated) {
+                screen.refresh();
+            }
+            final KeyStroke keyStroke = screen.pollInput();
+            if (keyStroke != null) {
+                return keyStroke;
+            }
+            try {
+                Thread.sleep(INPUT_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for input.");
+            }
+        }
+        return screen.readInput();
     }
 
     /**
@@ -202,7 +329,7 @@ public class TextQuest {
     public void run() throws IOException {
         ui.draw();
         while (true) {
-            KeyStroke keyStroke = screen.readInput();
+            KeyStroke keyStroke = readInput();
 
             // check for death
             if (player.getHealth() < 1) {
@@ -216,33 +343,30 @@ public class TextQuest {
 
             TerminalSize newSize = screen.doResizeIfNecessary();
             if (newSize != null) {
+                ui.resize(newSize);
                 ui.draw();
             }
 
             // handle player movement via arrow keys
-            int newX = player.getX();
-            int newY = player.getY();
-            if (keyType == KeyType.ArrowLeft) {
-                newX -= 1;
-            } else if (keyType == KeyType.ArrowRight) {
-                newX += 1;
-            } else if (keyType == KeyType.ArrowUp) {
-                newY -= 1;
-            } else if (keyType == KeyType.ArrowDown) {
-                newY += 1;
-            }
-            if ((newX != player.getX() || newY != player.getY()) && player.canMoveTo(activeMap, newX, newY)) {
-                // move player
-                if (newX >= 0 && newY >= 0 && newX < activeMap.width() && newY < activeMap.height()) {
-                    if (ui.map().movePlayer(newX, newY)) {
-                        // moved to new coordinate; add XP
-                        player.addXp(player.config().xp().exploreXp());
+            GameEngine.Move move = switch (keyType) {
+                case ArrowLeft -> GameEngine.Move.LEFT;
+                case ArrowRight -> GameEngine.Move.RIGHT;
+                case ArrowUp -> GameEngine.Move.UP;
+                case ArrowDown -> GameEngine.Move.DOWN;
+                case null, default -> null;
+            };
+            if (move != null) {
+                if (engine.execute(move).outcome() != Outcome.BLOCKED) {
+                    ui.map().playerMoved();
+                    if (engine.map() == mainMap) {
+                        // load any nearby cave or town maps in the background
+                        childMaps.playerMoved(player, mainMap, player.getX(), player.getY());
                     }
 
                     // redraw health in case that changed
                     ui.health().draw();
 
-                    screen.refresh();
+                    ui.refresh();
 
                     if (player.isDead()) {
                         death(0, bundle.getString("killed.terrain"));
@@ -254,18 +378,7 @@ public class TextQuest {
             if (keyType == KeyType.Character) {
                 final char key = Character.toLowerCase(keyStroke.getCharacter().charValue());
                 if (key == INTERACT_KEY) {
-                    // check terrain for possible enter/exit
-                    TerrainType t = activeMap.terrainAt(player.getX(), player.getY());
-                    switch (t) {
-                        case Cave -> interactWithCave();
-                        case Chest -> interactWithChest();
-                        case Ship, Water -> interactWithShip();
-                        case Shop -> interactWithShop();
-                        case Town -> interactWithTown();
-                        default -> {
-                            // nothing to do
-                        }
-                    }
+                    interact();
                 } else if (key == SAVE_KEY) {
                     // save game
                     saveGame();
@@ -280,83 +393,46 @@ public class TextQuest {
         }
     }
 
-    private void interactWithCave() {
-        // if the active map is the main map, we want to enter a cave, otherwise we want
-        // to exit back to the main map
-        final int x = player.getX();
-        final int y = player.getY();
-        if (activeMap == mainMap) {
-            // enter cave
-            String mapName = "%04d,%04d".formatted(x, y);
-            TerrainMap caveMap = loadChildMap(mapName);
-            activeMap = caveMap;
-            player.moveTo(caveMap, caveMap.startingCoordinate());
-        } else {
-            // exit cave, to the coordinate that is the map name
-            Matcher m = TerrainMap.COORDINATE_REGEX.matcher(activeMap.getName());
-            if (m.find()) {
-                player.moveTo(mainMap, Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
-                activeMap = mainMap;
+    private void interact() throws IOException {
+        final Result result = engine.execute(GameEngine.Interact.INSTANCE);
+        switch (result.outcome()) {
+            case ENTERED_MAP, EXITED_MAP -> ui.draw(ui.map());
+            case CHEST_COINS, CHEST_DAMAGE, CHEST_EMPTY, CHEST_ALREADY_OPENED -> chestOpened(result);
+            case DISEMBARK_OFFERED -> offerDisembark();
+            case SHIP_OFFERED, SHIP_UNAFFORDABLE -> offerShip(result);
+            case SHOP_ENTERED -> visitShop();
+            default -> {
+                // nothing to do
             }
         }
-        ui.draw(ui.map());
     }
 
-    private void interactWithTown() {
-        // treat town the same as a cave... jump to new map
-        interactWithCave();
-    }
-
-    private void interactWithChest() throws IOException {
-        final int x = player.getX();
-        final int y = player.getY();
-        String message = null; // message to show the outcome of interacting with the chest
-        if (player.interacted(game.map(), x, y)) {
-            final GameConfiguration config = player.config();
-            int coinsFound = 0;
-            int damageTaken = 0;
-
-            // TODO: open chest and deal with outcome: damage vs coins; decide first if
-            // the chest provides coins or deducts health. Then decide either how many
-            // coins to reward with, or health to deduct from, the player, updating the
-            // coinsFound or damageTaken variables appropriately.
-
-            if (coinsFound > 0) {
-                message = MessageFormat.format(bundle.getString("chest.coinsAcquired"), coinsFound);
-                player.addCoins(coinsFound);
-                ui.info().draw();
-            } else if (damageTaken > 0) {
-                message = MessageFormat.format(bundle.getString("chest.damageTaken"), damageTaken);
-                player.deductHealth(damageTaken);
-                ui.health().draw();
-            } else {
-                message = bundle.getString("chest.empty");
-            }
-
-            // earn XP
-            player.addXp(config.xp().chestXp());
-        } else {
-            // show message that chest has already been opened
-            message = bundle.getString("chest.alreadyOpened");
-        }
-        if (message != null) {
-            ui.status().drawMessage(message, MESSAGE_CLEAR_DELAY);
-        }
+    private void chestOpened(Result result) throws IOException {
+        // message to show the outcome of interacting with the chest
+        final String message = switch (result.outcome()) {
+            case CHEST_COINS -> MessageFormat.format(bundle.getString("chest.coinsAcquired"), result.amount());
+            case CHEST_DAMAGE -> MessageFormat.format(bundle.getString("chest.damageTaken"), result.amount());
+            case CHEST_EMPTY -> bundle.getString("chest.empty");
+            default -> bundle.getString("chest.alreadyOpened");
+        };
+        ui.status().drawMessage(message, MESSAGE_CLEAR_DELAY);
 
-        // update coins display
-        ui.info().drawCoins();
+        // update coins and health display
+        ui.info().draw();
+        ui.health().draw();
 
-        screen.refresh();
+        // redraw the chest, as it is drawn differently once opened
+        ui.map().damage(player.getX(), player.getY());
+        ui.refresh();
 
         // check for death!
-        if (player.getHealth() < 1) {
-            int delay = message != null ? MESSAGE_CLEAR_DELAY : 0;
-            death(delay, bundle.getString("killed.chest"));
+        if (player.isDead()) {
+            death(MESSAGE_CLEAR_DELAY, bundle.getString("killed.chest"));
         }
     }
 
     private void death(int delay, String message) throws IOException {
-        if (delay > 0) {
+        if (delay > 0 && replay == null) {
             try {
                 Thread.sleep(delay * 1000L);
             } catch (InterruptedException e) {
@@ -367,52 +443,43 @@ public class TextQuest {
         screen.refresh();
     }
 
-    private void interactWithShip() throws IOException {
-        String message = null; // message to show the outcome of interacting with the chest
-        int clearDelay = MESSAGE_CLEAR_DELAY;
-        if (player.onboard()) {
-            // disembark!
-            ui.status().drawMessage(bundle.getString("ship.askDisembark"), -1);
-            screen.refresh();
-            if (game.readYesNo()) {
-                player.disembark();
-                ui.status().drawMessage(bundle.getString("ship.disembarked"), MESSAGE_CLEAR_DELAY);
-            } else {
-                ui.status().drawMessage(null, -1);
-            }
-            screen.refresh();
+    private void offerDisembark() throws IOException {
+        ui.status().drawMessage(bundle.getString("ship.askDisembark"), -1);
+        screen.refresh();
+        if (game.readYesNo()) {
+            engine.execute(GameEngine.Disembark.INSTANCE);
+            ui.status().drawMessage(bundle.getString("ship.disembarked"), MESSAGE_CLEAR_DELAY);
         } else {
-            if (player.getCoins() < SHIP_COST) {
-                message = bundle.getString("ship.canNotAfford");
-                clearDelay = MESSAGE_CLEAR_DELAY * 3;
-            } else {
-                // ask if player wants to hire the ship
-                message = MessageFormat.format(bundle.getString("ship.askHire"), SHIP_COST);
-                clearDelay = -1;
-            }
-            ui.status().drawMessage(message, clearDelay);
+            ui.status().drawMessage(null, -1);
+        }
+        screen.refresh();
+    }
+
+    private void offerShip(Result offer) throws IOException {
+        if (offer.outcome() == Outcome.SHIP_UNAFFORDABLE) {
+            ui.status().drawMessage(bundle.getString("ship.canNotAfford"), MESSAGE_CLEAR_DELAY * 3);
             screen.refresh();
-            if (clearDelay < 0) {
-                if (game.readYesNo()) {
-                    message = bundle.getString("ship.hired");
-                    player.board();
-                    player.deductCoins(SHIP_COST);
-
-                    // update coins display
-                    ui.info().drawCoins();
-                } else {
-                    message = bundle.getString("ship.hireDeclined");
-                }
-                ui.status().drawMessage(message, MESSAGE_CLEAR_DELAY);
-                screen.refresh();
-            }
+            return;
         }
+
+        // ask if player wants to hire the ship
+        ui.status().drawMessage(MessageFormat.format(bundle.getString("ship.askHire"), offer.amount()), -1);
+        screen.refresh();
+        String message;
+        if (game.readYesNo() && engine.execute(GameEngine.HireShip.INSTANCE).outcome() == Outcome.SHIP_HIRED) {
+            message = bundle.getString("ship.hired");
+
+            // update coins display
+            ui.info().drawCoins();
+        } else {
+            message = bundle.getString("ship.hireDeclined");
+        }
+        ui.status().drawMessage(message, MESSAGE_CLEAR_DELAY);
+        screen.refresh();
     }
 
-    private void interactWithShop() throws IOException {
-        final int x = player.getX();
-        final int y = player.getY();
-        final Shop shop = activeMap.shopAt(x, y, game);
+    private void visitShop() throws IOException {
+        final Shop shop = engine.shop();
         ui.startShop(shop);
         while (true) {
             ui.status().drawMessage(bundle.getString("shop.buyOrSell"), -1);
@@ -422,54 +489,42 @@ public class TextQuest {
                 Coordinate inputPosition = ui.status().drawMessage(bundle.getString("shop.chooseItemToBuy"), -1);
                 screen.refresh();
                 Integer choice = game.readInteger(inputPosition.x() + 1, inputPosition.y());
-                if (choice == null || choice < 1 || choice > shop.itemsForSale().size()) {
-                    ui.status().drawMessage(bundle.getString("shop.invalidChoice"), -1);
-                    screen.refresh();
-                    game.readYesNo();
-                } else {
-                    InventoryItem itemToPurchase = shop.itemsForSale().get(choice - 1);
-                    if (itemToPurchase.price() > player.getCoins()) {
-                        // not enough coins to purchase
-                        ui.status().drawMessage(bundle.getString("shop.insufficentFunds"), -1);
-                        screen.refresh();
-                        game.readYesNo();
-                    } else {
-                        shop.purchase(itemToPurchase);
+                Result result = engine.execute(new GameEngine.Buy(choice != null ? choice : 0));
+                switch (result.outcome()) {
+                    case PURCHASED -> {
                         ui.status().drawMessage(bundle.getString("shop.purchasedItem"), -1);
                         ui.shop().draw();
                         ui.info().draw();
-                        screen.refresh();
-                        game.readYesNo();
                     }
+                    case INSUFFICIENT_FUNDS -> ui.status().drawMessage(bundle.getString("shop.insufficentFunds"), -1);
+                    default -> ui.status().drawMessage(bundle.getString("shop.invalidChoice"), -1);
                 }
+                screen.refresh();
+                game.readYesNo();
             } else if (action == 's') {
-                List<InventoryItem> nonEquippedItems = player.getItems().getItems().stream()
-                        .filter(item -> !item.isEquipped())
-                        .toList();
-                InventoryItem itemToSell = null;
-                if (nonEquippedItems.isEmpty()) {
+                List<InventoryItem> sellableItems = engine.sellableItems();
+                Integer choice = null;
+                if (sellableItems.isEmpty()) {
                     ui.status().drawMessage(bundle.getString("shop.nothingToSell"), -1);
                     screen.refresh();
                     game.readYesNo();
                     continue;
-                } else if (nonEquippedItems.size() == 1) {
+                } else if (sellableItems.size() == 1) {
                     // only one item to sell, jump right to that
-                    itemToSell = nonEquippedItems.getFirst();
+                    choice = 1;
                 } else {
                     Coordinate inputPosition = ui.status().drawMessage(bundle.getString("shop.chooseItemToSell"), -1);
                     screen.refresh();
-                    Integer choice = game.readInteger(inputPosition.x() + 1, inputPosition.y());
-                    if (choice != null) {
-                        if (choice > 0 && choice <= shop.itemsForSale().size()) {
-                            itemToSell = nonEquippedItems.get(choice - 1);
-                        } else {
-                            ui.status().drawMessage(bundle.getString("shop.invalidChoice"), -1);
-                            screen.refresh();
-                            game.readYesNo();
-                        }
+                    choice = game.readInteger(inputPosition.x() + 1, inputPosition.y());
+                    if (choice != null && (choice < 1 || choice > sellableItems.size())) {
+                        ui.status().drawMessage(bundle.getString("shop.invalidChoice"), -1);
+                        screen.refresh();
+                        game.readYesNo();
+                        choice = null;
                     }
                 }
-                if (itemToSell != null) {
+                if (choice != null) {
+                    InventoryItem itemToSell = sellableItems.get(choice - 1);
                     int purchasePrice = shop.sellItemPrice(itemToSell);
                     ui.status()
                             .drawMessage(
@@ -477,7 +532,7 @@ public class TextQuest {
                                             bundle.getString("shop.purchaseOffer"), purchasePrice, itemToSell.name()),
                                     -1);
                     if (game.readYesNo()) {
-                        shop.sell(itemToSell);
+                        engine.execute(new GameEngine.Sell(choice));
                         ui.info().draw();
                         ui.status().drawMessage(bundle.getString("shop.sold"), -1);
                         screen.refresh();
@@ -495,19 +550,14 @@ public class TextQuest {
     }
 
     private void equipItem() throws IOException {
-        var equipableItems = ui.info().equipableItemsByType().values().stream()
-                .flatMap(list -> list.stream())
-                .toList();
-        if (equipableItems.isEmpty()) {
+        if (engine.equipableItems().isEmpty()) {
             ui.status().drawMessage(bundle.getString("inventory.equip.noneAvailable"), MESSAGE_CLEAR_DELAY);
         } else {
             Coordinate inputPosition = ui.status().drawMessage(bundle.getString("inventory.equip.choose"), -1);
             screen.refresh();
             Integer choice = game.readInteger(inputPosition.x() + 1, inputPosition.y());
             if (choice != null) {
-                if (choice > 0 && choice <= equipableItems.size()) {
-                    var itemToEquip = equipableItems.get(choice - 1);
-                    player.getItems().apply(itemToEquip, player);
+                if (engine.execute(new GameEngine.Equip(choice)).outcome() == Outcome.EQUIPPED) {
                     ui.info().drawItems();
                     ui.health().draw();
                     ui.status().drawMessage("", -1);
@@ -523,19 +573,14 @@ public class TextQuest {
     }
 
     private void stashItem() throws IOException {
-        var stashableItems = ui.info().equippedItemsByType().values().stream()
-                .flatMap(list -> list.stream())
-                .toList();
-        if (stashableItems.isEmpty()) {
+        if (engine.equippedItems().isEmpty()) {
             ui.status().drawMessage(bundle.getString("inventory.stash.noneAvailable"), MESSAGE_CLEAR_DELAY);
         } else {
             Coordinate inputPosition = ui.status().drawMessage(bundle.getString("inventory.stash.choose"), -1);
             screen.refresh();
             Integer choice = game.readInteger(inputPosition.x() + 1, inputPosition.y());
             if (choice != null) {
-                if (choice > 0 && choice <= stashableItems.size()) {
-                    var itemToStash = stashableItems.get(choice - 1);
-                    player.getItems().stash(itemToStash, player);
+                if (engine.execute(new GameEngine.Stash(choice)).outcome() == Outcome.STASHED) {
                     ui.info().drawItems();
                     ui.status().drawMessage("", -1);
                     screen.refresh();
@@ -551,22 +596,53 @@ public class TextQuest {
     }
 
     private TerrainMap loadChildMap(String mapName) {
-        return TerrainMapBuilder.parseResources("META-INF/tqmaps/%s/%s".formatted(mainMap.getName(), mapName))
-                .build(mapName);
+        return childMaps.get(mapName);
     }
 
-    private void saveGame() throws IOException {
-        try {
-            new Persistence(mapper).savePlayer(player, savePath);
-            ui.status().drawMessage(bundle.getString("game.save.ok"), MESSAGE_CLEAR_DELAY);
-            // TODO: write success message
-        } catch (IOException e) {
-            ui.status()
-                    .drawMessage(
-                            MessageFormat.format(bundle.getString("game.save.error"), e.getLocalizedMessage()),
-                            MESSAGE_CLEAR_DELAY);
+    /**
+     * Create a prefetcher for the child maps of a main map.
+     *
+     * @param mainMap the main map
+     * @return the prefetcher
+     */
+    static TerrainMapPrefetcher childMapPrefetcher(TerrainMap mainMap) {
+        final String mainMapName = mainMap.getName();
+        return new TerrainMapPrefetcher(
+                new TerrainMapCache(
+                        CHILD_MAP_CACHE_MAX_CELLS,
+                        true,
+                        mapName -> TerrainMapBuilder.parseResources(
+                                        "META-INF/tqmaps/%s/%s".formatted(mainMapName, mapName))
+                                .build(mapName)),
+                CHILD_MAP_PREFETCH_DISTANCE);
+    }
+
+    private void saveGame() {
+        if (saves == null) {
+            // not saving, e.g. when replaying
+            return;
         }
-        screen.refresh();
+        // the save is written in the background; the outcome is reported on this thread once done
+        pendingSaves.add(saves.save(player));
+    }
+
+    private boolean reportSaves() {
+        boolean reported = false;
+        while (!pendingSaves.isEmpty() && pendingSaves.peekFirst().isDone()) {
+            final CompletableFuture<Boolean> save = pendingSaves.removeFirst();
+            if (save.isCompletedExceptionally()) {
+                ui.status()
+                        .drawMessage(
+                                MessageFormat.format(
+                                        bundle.getString("game.save.error"),
+                                        save.exceptionNow().getLocalizedMessage()),
+                                MESSAGE_CLEAR_DELAY);
+            } else {
+                ui.status().drawMessage(bundle.getString("game.save.ok"), MESSAGE_CLEAR_DELAY);
+            }
+            reported = true;
+        }
+        return reported;
     }
 
     private static void printHelp(Options options) {
@@ -599,7 +675,27 @@ public class TextQuest {
         return null;
     }
 
-    private static Terminal createTerminal(GameConfiguration config) throws IOException {
+    /**
+     * Create the JSON mapper the game uses for settings and save files.
+     *
+     * @return the mapper
+     */
+    public static ObjectMapper createMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setSerializationInclusion(Include.NON_NULL);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        mapper.registerModule(CoordinateJson.createCoordinateModule());
+        mapper.registerModule(BitSetJson.createBitSetModule(true));
+        mapper.registerSubtypes(PlayerItemsJson.itemSubTypes());
+        return mapper;
+    }
+
+    private static Terminal createTerminal(GameConfiguration config, TerminalSize virtualSize) throws IOException {
+        if (virtualSize != null) {
+            // an in-memory terminal, that is never displayed
+            return new DefaultVirtualTerminal(virtualSize);
+        }
         DefaultTerminalFactory tf = new DefaultTerminalFactory();
         if (config.gui()) {
             return tf.createTerminalEmulator();
@@ -617,13 +713,7 @@ public class TextQuest {
         }
 
         // create JSON mapper
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setSerializationInclusion(Include.NON_NULL);
-        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
-        mapper.registerModule(CoordinateJson.createCoordinateModule());
-        mapper.registerModule(BitSetJson.createBitSetModule());
-        mapper.registerSubtypes(PlayerItemsJson.itemSubTypes());
+        ObjectMapper mapper = createMapper();
 
         // load main map
         TerrainMap mainMap = CommandLineGameConfiguration.map(cl);
@@ -636,15 +726,61 @@ public class TextQuest {
         // create game configuration
         GameConfiguration config = CommandLineGameConfiguration.parseConfiguration(cl);
 
+        if (cl.hasOption(CommandLineGameConfiguration.OPT_SERVER)) {
+            int port = 0;
+            try {
+                port = Integer.parseInt(cl.getOptionValue(CommandLineGameConfiguration.OPT_SERVER));
+                if (port < 1 || port > 65535) {
+                    throw new IllegalArgumentException();
+                }
+            } catch (Exception e) {
+                printErrorAndExit("The --server argument must be a port number between 1 and 65535.");
+            }
+            try (TextQuestServer server = new TextQuestServer(port, settings, mainMap, config, mapper)) {
+                System.err.println("Hosting games on port %d.".formatted(port));
+                server.run();
+            } catch (IOException e) {
+                printErrorAndExit("I/O error hosting games on port %d: %s".formatted(port, e.getMessage()));
+            }
+            return;
+        }
+
+        // load any replay
+        InputReplay replay = null;
+        boolean watchReplay = cl.hasOption(CommandLineGameConfiguration.OPT_WATCH_REPLAY);
+        if (cl.hasOption(CommandLineGameConfiguration.OPT_REPLAY)) {
+            Path replayPath = Paths.get(cl.getOptionValue(CommandLineGameConfiguration.OPT_REPLAY));
+            try {
+                replay = InputReplay.load(mapper, replayPath);
+            } catch (IOException | IllegalArgumentException e) {
+                printErrorAndExit("Error loading replay file (%s): %s".formatted(replayPath, e.getMessage()));
+            }
+        }
+        Path recordPath = null;
+        if (cl.hasOption(CommandLineGameConfiguration.OPT_RECORD)) {
+            recordPath = Paths.get(cl.getOptionValue(CommandLineGameConfiguration.OPT_RECORD));
+        }
+
+        // seed the game chance, so replays are repeatable
+        final long seed = (replay != null ? replay.seed() : new Random().nextLong());
+
         // create player
         Player player = null;
         Path save = Paths.get("game.tqsave");
         if (cl.hasOption(CommandLineGameConfiguration.OPT_SAVE_PATH)) {
             save = Paths.get(cl.getOptionValue(CommandLineGameConfiguration.OPT_SAVE_PATH));
         }
-        if (Files.isReadable(save)) {
+        Persistence persistence = new Persistence(mapper, cl.hasOption(CommandLineGameConfiguration.OPT_BINARY_SAVE));
+        if (replay != null) {
+            // replay from the player and configuration the recording started with
+            player = replay.player();
+        } else if (Files.isReadable(save) || Files.isReadable(Persistence.journalPath(save))) {
             try {
-                player = new Persistence(mapper).loadPlayer(save);
+                if (!Files.exists(save)) {
+                    // only a journal was saved; create the save file from that
+                    persistence.compactJournal(save);
+                }
+                player = persistence.loadPlayer(save);
                 player.configure(config);
             } catch (IOException e) {
                 printErrorAndExit("I/O error loading saved game file (%s): %s".formatted(save, e.getMessage()));
@@ -657,7 +793,9 @@ public class TextQuest {
         // free CommandLine
         cl = null;
 
-        try (Terminal terminal = createTerminal(config)) {
+        // replay without rendering to a real terminal, unless watching
+        long replayTime = 0;
+        try (Terminal terminal = createTerminal(config, replay != null && !watchReplay ? replay.size() : null)) {
             TerminalSize screenSize = terminal.getTerminalSize();
             if (screenSize.getColumns() < 30 || screenSize.getRows() < 10) {
                 printErrorAndExit("Terminal must be at least 30x10.");
@@ -668,14 +806,38 @@ public class TextQuest {
             try {
                 screen.startScreen();
                 screen.setCursorPosition(null);
-                TextQuest tq = new TextQuest(screen, settings, mainMap, player, mapper);
-                tq.setSavePath(save);
-                tq.run();
+                TextQuest tq = new TextQuest(screen, settings, mainMap, player, mapper, new Random(seed));
+                if (replay != null) {
+                    // replays never save, so the save file is left as is
+                    tq.setReplay(replay);
+                } else {
+                    tq.setSavePath(persistence, save);
+                }
+                if (recordPath != null) {
+                    tq.setRecorder(new InputRecorder(mapper, recordPath, seed, screenSize, player));
+                }
+                try {
+                    final long start = System.nanoTime();
+                    tq.run();
+                    replayTime = System.nanoTime() - start;
+                } finally {
+                    if (tq.saves != null) {
+                        // wait for any queued saves to finish
+                        tq.saves.close();
+                    }
+                    if (tq.recorder != null) {
+                        tq.recorder.close();
+                    }
+                }
             } finally {
                 screen.stopScreen();
             }
         } catch (IOException e) {
             printErrorAndExit("I/O error with terminal (%s), bye!".formatted(e.getMessage()));
         }
+        if (replay != null) {
+            System.err.println("Replayed %d of %d key strokes in %d ms."
+                    .formatted(replay.position(), replay.count(), replayTime / 1_000_000L));
+        }
     }
 }
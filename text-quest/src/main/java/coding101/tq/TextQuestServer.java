@@ -0,0 +1,166 @@
+package coding101.tq;
+
+import coding101.tq.domain.MapOverlay;
+import coding101.tq.domain.Player;
+import coding101.tq.domain.Settings;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.util.TerrainMapPrefetcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.screen.Screen;
+import com.googlecode.lanterna.screen.TerminalScreen;
+import com.googlecode.lanterna.terminal.ansi.TelnetTerminal;
+import com.googlecode.lanterna.terminal.ansi.TelnetTerminalServer;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.Timer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Host many concurrent games over the telnet protocol.
+ *
+ * Each connection is a new game session, with its own {@link Player} and
+ * Lanterna {@link TelnetTerminal}, run on its own virtual thread. All sessions
+ * share the same settings, maps, child map cache, and background UI timer, so
+ * each session only adds its player, {@link MapOverlay}, and screen state. The
+ * timer only schedules UI updates; each session applies them on its own thread,
+ * so a slow connection cannot hold up the other sessions.
+ *
+ * Sessions are not saved: every connection starts a new game.
+ */
+public class TextQuestServer implements AutoCloseable {
+
+    private final Settings settings;
+    private final TerrainMap mainMap;
+    private final GameConfiguration config;
+    private final ObjectMapper mapper;
+    private final TelnetTerminalServer server;
+    private final Timer timer;
+    private final TerrainMapPrefetcher childMaps;
+    private final ExecutorService sessions;
+    private final Set<TelnetTerminal> terminals = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor.
+     *
+     * The server starts listening for connections immediately, but does not
+     * accept any until {@link #run()} is called.
+     *
+     * @param port     the TCP port to listen on
+     * @param settings the game settings
+     * @param mainMap  the main map
+     * @param config   the game configuration to start each player with
+     * @param mapper   the JSON mapper
+     * @throws IllegalArgumentException if any argument is {@code null}
+     * @throws IOException              if the port cannot be listened on
+     */
+    public TextQuestServer(
+            int port, Settings settings, TerrainMap mainMap, GameConfiguration config, ObjectMapper mapper)
+            throws IOException {
+        super();
+        this.settings = Objects.requireNonNull(settings);
+        this.mainMap = Objects.requireNonNull(mainMap);
+        this.config = Objects.requireNonNull(config);
+        this.mapper = Objects.requireNonNull(mapper);
+        this.server = new TelnetTerminalServer(port);
+        this.timer = new Timer("TQ Tasks", true);
+        this.childMaps = TextQuest.childMapPrefetcher(mainMap);
+        this.sessions = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("TQ Session ", 1).factory());
+    }
+
+    /**
+     * Accept connections and run a game session for each, until the server is
+     * closed.
+     *
+     * @throws IOException if an IO error occurs accepting connections
+     */
+    public void run() throws IOException {
+        while (!sessions.isShutdown()) {
+            final TelnetTerminal terminal;
+            try {
+                terminal = server.acceptConnection();
+            } catch (IOException e) {
+                if (sessions.isShutdown()) {
+                    // closed while waiting for a connection
+                    return;
+                }
+                throw e;
+            }
+            if (terminal != null) {
+                terminals.add(terminal);
+                sessions.execute(() -> session(terminal));
+            }
+        }
+    }
+
+    private void session(TelnetTerminal terminal) {
+        try (terminal) {
+            TerminalSize screenSize = terminal.getTerminalSize();
+            if (screenSize.getColumns() < 30 || screenSize.getRows() < 10) {
+                terminal.putString("Terminal must be at least 30x10, but is %dx%d. Bye!\r\n"
+                        .formatted(screenSize.getColumns(), screenSize.getRows()));
+                terminal.flush();
+                return;
+            }
+
+            final Player player = new Player(config);
+            player.moveTo(mainMap, mainMap.startingCoordinate());
+
+            final Screen screen = new TerminalScreen(terminal);
+            screen.startScreen();
+            try {
+                screen.setCursorPosition(null);
+                new TextQuest(screen, settings, mainMap, player, mapper, new Random(), timer, childMaps).run();
+            } finally {
+                childMaps.playerLeft(player);
+                screen.stopScreen();
+            }
+        } catch (IOException e) {
+            // the connection is gone; nothing more to do
+        } catch (RuntimeException e) {
+            if (!(e.getCause() instanceof IOException)) {
+                // a game error, rather than the connection being gone
+                System.err.println("Error in game session %s: %s"
+                        .formatted(Thread.currentThread().getName(), e.getMessage()));
+                e.printStackTrace(System.err);
+            }
+        } finally {
+            terminals.remove(terminal);
+        }
+    }
+
+    /**
+     * Get the number of active game sessions.
+     *
+     * @return the session count
+     */
+    public int activeCount() {
+        return terminals.size();
+    }
+
+    /**
+     * Stop accepting connections and end all game sessions.
+     */
+    @Override
+    public void close() {
+        sessions.shutdownNow();
+        try {
+            server.close();
+        } catch (IOException e) {
+            // ignore
+        }
+        for (TelnetTerminal terminal : terminals) {
+            try {
+                terminal.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+        childMaps.close();
+        timer.cancel();
+    }
+}
@@ -91,6 +91,22 @@ public record ColorPalette(
         return TextColor.Factory.fromString(ref);
     }
 
+    /**
+     * Resolve the colors for all terrain types.
+     *
+     * @param defaultColor the default color to use
+     * @return the colors, indexed by {@link TerrainType#codeFor(TerrainType)}
+     */
+    public TextColor[] terrainColors(TextColor defaultColor) {
+        final TerrainType[] types = TerrainType.values();
+        final TextColor[] result = new TextColor[types.length + 1];
+        result[TerrainType.NO_CODE] = terrain(null, defaultColor);
+        for (TerrainType type : types) {
+            result[type.code()] = terrain(type, defaultColor);
+        }
+        return result;
+    }
+
     /**
      * Get a color for a terrain.
      *
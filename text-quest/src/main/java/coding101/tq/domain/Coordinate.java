@@ -1,6 +1,5 @@
 package coding101.tq.domain;
 
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -23,13 +22,68 @@ public record Coordinate(int x, int y) implements Comparable<Coordinate> {
         return Integer.compare(y, o.y);
     }
 
+    /**
+     * Pack a coordinate into a single {@code long} value.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the packed coordinate, with {@code x} in the high 32 bits and
+     *         {@code y} in the low 32 bits
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get the x coordinate of a packed coordinate.
+     *
+     * @param packed the packed coordinate
+     * @return the x coordinate
+     * @see #pack(int, int)
+     */
+    public static int unpackX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Get the y coordinate of a packed coordinate.
+     *
+     * @param packed the packed coordinate
+     * @return the y coordinate
+     * @see #pack(int, int)
+     */
+    public static int unpackY(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Create a coordinate from a packed coordinate.
+     *
+     * @param packed the packed coordinate
+     * @return the coordinate
+     * @see #pack(int, int)
+     */
+    public static Coordinate unpack(long packed) {
+        return new Coordinate(unpackX(packed), unpackY(packed));
+    }
+
+    /**
+     * Pack this coordinate into a single {@code long} value.
+     *
+     * @return the packed coordinate
+     * @see #pack(int, int)
+     */
+    public long pack() {
+        return pack(x, y);
+    }
+
     /**
      * Get a "key" encoding for this coordinate, as {@code "x,y"}.
      *
      * @return the key encoding
      */
     public String toKey() {
-        return String.valueOf(x) + ',' + String.valueOf(y);
+        return x + "," + y;
     }
 
     /**
@@ -39,14 +93,79 @@ public record Coordinate(int x, int y) implements Comparable<Coordinate> {
      * @return the parsed key, or {@code null} if {@code key} is {@code null}
      * @throws IllegalArgumentException if {@code key} is not a valid format
      */
-    public static Coordinate forKey(String key) {
+    public static Coordinate forKey(CharSequence key) {
         if (key == null) {
             return null;
         }
-        Matcher m = KEY_PATTERN.matcher(key);
-        if (!m.find()) {
+        final long packed = find(key, false);
+        if (packed < 0) {
             throw new IllegalArgumentException("Invalid coordinate key value [%s]".formatted(key));
         }
-        return new Coordinate(Integer.valueOf(m.group(1)), Integer.valueOf(m.group(2)));
+        return unpack(packed);
+    }
+
+    /**
+     * Find the first coordinate in some text.
+     *
+     * This finds the same coordinate as {@link #KEY_PATTERN} would, or with
+     * {@code spaces} the same as {@code (\d+)\s*,\s*(\d+)}, without the
+     * overhead of a regular expression.
+     *
+     * @param text   the text to search
+     * @param spaces {@code true} to allow whitespace around the comma
+     * @return the packed coordinate, or {@code -1} if no coordinate is found
+     * @throws IllegalArgumentException if a coordinate is found but a value is
+     *                                  too large for an {@code int}
+     * @see #pack(int, int)
+     */
+    public static long find(CharSequence text, boolean spaces) {
+        final int len = text.length();
+        for (int comma = 0; comma < len; comma++) {
+            if (text.charAt(comma) != ',') {
+                continue;
+            }
+            int xEnd = comma;
+            while (spaces && xEnd > 0 && isSpace(text.charAt(xEnd - 1))) {
+                xEnd--;
+            }
+            int xStart = xEnd;
+            while (xStart > 0 && isDigit(text.charAt(xStart - 1))) {
+                xStart--;
+            }
+            int yStart = comma + 1;
+            while (spaces && yStart < len && isSpace(text.charAt(yStart))) {
+                yStart++;
+            }
+            int yEnd = yStart;
+            while (yEnd < len && isDigit(text.charAt(yEnd))) {
+                yEnd++;
+            }
+            if (xStart < xEnd && yStart < yEnd) {
+                return pack(parseDigits(text, xStart, xEnd), parseDigits(text, yStart, yEnd));
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSpace(char c) {
+        // the same characters as the regular expression \s
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    private static int parseDigits(CharSequence text, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            final int digit = text.charAt(i) - '0';
+            if (result > (Integer.MAX_VALUE - digit) / 10) {
+                throw new NumberFormatException(
+                        "Coordinate value [%s] too large.".formatted(text.subSequence(start, end)));
+            }
+            result = result * 10 + digit;
+        }
+        return result;
     }
 }
@@ -0,0 +1,248 @@
+package coding101.tq.domain;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A mapping of coordinates to coordinates, stored as packed {@code long}
+ * values.
+ *
+ * Getting and putting coordinates does not allocate any objects.
+ *
+ * This class is not thread-safe.
+ *
+ * @see Coordinate#pack(int, int)
+ */
+public final class CoordinateMap {
+
+    /**
+     * API for consuming map entries.
+     */
+    @FunctionalInterface
+    public static interface EntryConsumer {
+
+        /**
+         * Accept a map entry.
+         *
+         * @param key   the packed key coordinate
+         * @param value the packed value coordinate
+         */
+        void accept(long key, long value);
+    }
+
+    // marks an empty slot; a packed coordinate key with this value is tracked separately
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private boolean containsEmpty;
+    private long emptyValue;
+
+    /**
+     * Constructor.
+     */
+    public CoordinateMap() {
+        this(8);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public CoordinateMap(int expectedSize) {
+        super();
+        allocate(CoordinateSet.tableSize(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private int find(long key) {
+        int i = CoordinateSet.slot(key, mask);
+        long k;
+        while ((k = keys[i]) != EMPTY) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -(i + 1);
+    }
+
+    /**
+     * Associate a value with a key.
+     *
+     * @param key   the packed key coordinate
+     * @param value the packed value coordinate
+     * @return {@code true} if the key was not already in the map
+     */
+    public boolean put(long key, long value) {
+        if (key == EMPTY) {
+            boolean result = !containsEmpty;
+            if (result) {
+                containsEmpty = true;
+                size++;
+            }
+            emptyValue = value;
+            return result;
+        }
+        int i = find(key);
+        if (i >= 0) {
+            values[i] = value;
+            return false;
+        }
+        i = -(i + 1);
+        keys[i] = key;
+        values[i] = value;
+        if (++size > keys.length / 2) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Get the value associated with a key.
+     *
+     * @param key          the packed key coordinate
+     * @param defaultValue the value to return if {@code key} is not in the map
+     * @return the associated packed value coordinate, or {@code defaultValue}
+     */
+    public long get(long key, long defaultValue) {
+        if (key == EMPTY) {
+            return (containsEmpty ? emptyValue : defaultValue);
+        }
+        int i = find(key);
+        return (i >= 0 ? values[i] : defaultValue);
+    }
+
+    /**
+     * Test if the map contains a key.
+     *
+     * @param key the packed key coordinate
+     * @return {@code true} if the key is in the map
+     */
+    public boolean containsKey(long key) {
+        return (key == EMPTY ? containsEmpty : find(key) >= 0);
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @param key the packed key coordinate to remove
+     * @return {@code true} if the key was in the map
+     */
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            boolean result = containsEmpty;
+            if (result) {
+                containsEmpty = false;
+                size--;
+            }
+            return result;
+        }
+        int i = find(key);
+        if (i < 0) {
+            return false;
+        }
+        shiftKeys(i);
+        size--;
+        return true;
+    }
+
+    // close the gap left by a removed slot, so linear probing remains intact
+    private void shiftKeys(int pos) {
+        while (true) {
+            final int last = pos;
+            pos = (pos + 1) & mask;
+            long k;
+            while (true) {
+                if ((k = keys[pos]) == EMPTY) {
+                    keys[last] = EMPTY;
+                    return;
+                }
+                final int slot = CoordinateSet.slot(k, mask);
+                if (last <= pos ? (last >= slot || slot > pos) : (last >= slot && slot > pos)) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int j = 0; j < oldKeys.length; j++) {
+            final long k = oldKeys[j];
+            if (k != EMPTY) {
+                int i = CoordinateSet.slot(k, mask);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Get the number of entries in the map.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Test if the map is empty.
+     *
+     * @return {@code true} if the map has no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Call a consumer for every entry in the map, in no particular order.
+     *
+     * @param action the consumer
+     */
+    public void forEach(EntryConsumer action) {
+        if (containsEmpty) {
+            action.accept(EMPTY, emptyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Get a sorted copy of the map as coordinate instances.
+     *
+     * @return the coordinates
+     */
+    public SortedMap<Coordinate, Coordinate> toCoordinates() {
+        final SortedMap<Coordinate, Coordinate> result = new TreeMap<>();
+        forEach((k, v) -> result.put(Coordinate.unpack(k), Coordinate.unpack(v)));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toCoordinates().toString();
+    }
+}
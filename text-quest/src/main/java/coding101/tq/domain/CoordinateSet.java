@@ -0,0 +1,197 @@
+package coding101.tq.domain;
+
+import java.util.Arrays;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of coordinates, stored as packed {@code long} values.
+ *
+ * Adding and testing coordinates does not allocate any objects.
+ *
+ * This class is not thread-safe.
+ *
+ * @see Coordinate#pack(int, int)
+ */
+public final class CoordinateSet {
+
+    // marks an empty slot; a packed coordinate with this value is tracked separately
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private boolean containsEmpty;
+
+    /**
+     * Constructor.
+     */
+    public CoordinateSet() {
+        this(8);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize the expected number of coordinates
+     */
+    public CoordinateSet(int expectedSize) {
+        super();
+        allocate(tableSize(expectedSize));
+    }
+
+    static int tableSize(int expectedSize) {
+        // keep load factor at most 1/2
+        return Math.max(16, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1);
+    }
+
+    static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Add a coordinate.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if the coordinate was not already in the set
+     */
+    public boolean add(int x, int y) {
+        return add(Coordinate.pack(x, y));
+    }
+
+    /**
+     * Add a packed coordinate.
+     *
+     * @param key the packed coordinate
+     * @return {@code true} if the coordinate was not already in the set
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        int i = slot(key, mask);
+        long k;
+        while ((k = keys[i]) != EMPTY) {
+            if (k == key) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        if (++size > keys.length / 2) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Test if the set contains a coordinate.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return {@code true} if the coordinate is in the set
+     */
+    public boolean contains(int x, int y) {
+        return contains(Coordinate.pack(x, y));
+    }
+
+    /**
+     * Test if the set contains a packed coordinate.
+     *
+     * @param key the packed coordinate
+     * @return {@code true} if the coordinate is in the set
+     */
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsEmpty;
+        }
+        int i = slot(key, mask);
+        long k;
+        while ((k = keys[i]) != EMPTY) {
+            if (k == key) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    private void grow() {
+        final long[] old = keys;
+        allocate(old.length * 2);
+        for (long k : old) {
+            if (k != EMPTY) {
+                int i = slot(k, mask);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+            }
+        }
+    }
+
+    /**
+     * Get the number of coordinates in the set.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Test if the set is empty.
+     *
+     * @return {@code true} if the set has no coordinates
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Call a consumer for every packed coordinate in the set, in no particular
+     * order.
+     *
+     * @param action the consumer
+     */
+    public void forEach(LongConsumer action) {
+        if (containsEmpty) {
+            action.accept(EMPTY);
+        }
+        for (long k : keys) {
+            if (k != EMPTY) {
+                action.accept(k);
+            }
+        }
+    }
+
+    /**
+     * Get a sorted copy of the set as coordinate instances.
+     *
+     * @return the coordinates
+     */
+    public SortedSet<Coordinate> toCoordinates() {
+        final SortedSet<Coordinate> result = new TreeSet<>();
+        forEach(k -> result.add(Coordinate.unpack(k)));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toCoordinates().toString();
+    }
+}
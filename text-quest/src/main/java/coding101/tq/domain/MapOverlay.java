@@ -0,0 +1,75 @@
+package coding101.tq.domain;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * The transient state of one player's game, layered over shared maps.
+ *
+ * A {@link TerrainMap} holds only the terrain and metadata of a map, which
+ * never change, so one map instance can be shared by any number of games. The
+ * state a player changes as they play is kept separately: opened chests and
+ * moved ships are tracked by the {@link Player}, as they are saved with the
+ * game, while shops are tracked here, as they only last as long as the game
+ * is running.
+ *
+ * This class is not thread-safe; each game should use its own instance.
+ */
+public class MapOverlay {
+
+    // the maximum number of items a shop offers for sale; maybe configure somewhere?
+    private static final int SHOP_SELL_ITEMS_MAXIMUM = 3;
+
+    private final PlayerItems items;
+    private final Player player;
+    private final RandomGenerator random;
+
+    // a mapping of map names to coordinates to associated Shop instances
+    private final Map<String, Map<Coordinate, Shop>> shops = new HashMap<>(2);
+
+    /**
+     * Constructor.
+     *
+     * @param items  the game items shops can offer
+     * @param player the player
+     * @param random the random number generator for shops
+     * @throws IllegalArgumentException if any argument is {@code null}
+     */
+    public MapOverlay(PlayerItems items, Player player, RandomGenerator random) {
+        super();
+        this.items = Objects.requireNonNull(items);
+        this.player = Objects.requireNonNull(player);
+        this.random = Objects.requireNonNull(random);
+    }
+
+    /**
+     * Get a shop instance at a given map coordinate.
+     *
+     * This method caches shop instances, so the same shop is always returned
+     * until {@link #clear(String)} is called for the map. In this way a shop can
+     * "run out" of items for sale, until the player leaves and re-enters the map.
+     *
+     * @param map the map
+     * @param x   the x coordinate
+     * @param y   the y coordinate
+     * @return the shop
+     */
+    public Shop shopAt(TerrainMap map, int x, int y) {
+        final double purchaseRateDiscount = player.config().shop().purchaseRateDiscount();
+        return shops.computeIfAbsent(map.getName(), name -> new HashMap<>(2))
+                .computeIfAbsent(
+                        new Coordinate(x, y),
+                        coord -> new Shop(items, player, purchaseRateDiscount, SHOP_SELL_ITEMS_MAXIMUM, random));
+    }
+
+    /**
+     * Clear all transient state for a map.
+     *
+     * @param mapName the name of the map to clear
+     */
+    public void clear(String mapName) {
+        shops.remove(mapName);
+    }
+}
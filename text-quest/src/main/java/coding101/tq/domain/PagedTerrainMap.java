@@ -0,0 +1,229 @@
+package coding101.tq.domain;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A map of terrain that loads fixed-size tiles of terrain on demand.
+ *
+ * Only the most recently used tiles are kept in memory, up to a configurable
+ * maximum. A tile is loaded the first time any of its coordinates are accessed,
+ * and is loaded again if accessed after being evicted.
+ *
+ * This class is thread-safe, and does not lock. A tile is loaded by the first
+ * thread that accesses it, while any other threads that access the same tile
+ * wait for that load; threads accessing other tiles are not affected. Each
+ * thread remembers the tile it last accessed, so accessing adjacent cells does
+ * not look up the tile cache at all.
+ */
+public class PagedTerrainMap extends TerrainMap {
+
+    /**
+     * API for loading terrain tiles.
+     */
+    @FunctionalInterface
+    public static interface TileLoader {
+
+        /**
+         * Load a tile.
+         *
+         * @param tileX the tile column
+         * @param tileY the tile row
+         * @return the tile terrain as {@link TerrainType#code()} values in row-major
+         *         order, or {@code null} if there is no such tile
+         * @throws IllegalArgumentException if the tile cannot be loaded
+         */
+        byte[] loadTile(int tileX, int tileY);
+    }
+
+    // a placeholder for tiles that do not exist
+    private static final byte[] NO_TILE = new byte[0];
+
+    // a cached tile, which is loading until its cells complete
+    private static final class Tile {
+
+        private final CompletableFuture<byte[]> cells = new CompletableFuture<>();
+
+        // the cache clock when the tile was last looked up, for evicting the least recently used
+        private volatile long lastUsed;
+    }
+
+    // the tile a thread most recently accessed, to avoid cache lookups for adjacent cells
+    private record LastTile(int index, byte[] cells) {}
+
+    private static final LastTile NO_LAST_TILE = new LastTile(-1, null);
+
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int tileCols;
+    private final int tileRows;
+    private final int maxCachedTiles;
+    private final TileLoader loader;
+    private final ConcurrentMap<Integer, Tile> tiles = new ConcurrentHashMap<>(16);
+    private final ThreadLocal<LastTile> lastTile = ThreadLocal.withInitial(() -> NO_LAST_TILE);
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong loadCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param name           the map name
+     * @param tileWidth      the width of every tile
+     * @param tileHeight     the height of every tile
+     * @param tileCols       the number of tile columns
+     * @param tileRows       the number of tile rows
+     * @param metadata       the metadata
+     * @param maxCachedTiles the maximum number of tiles to keep in memory
+     * @param loader         the tile loader
+     * @throws IllegalArgumentException if any argument is {@literal null} or any
+     *                                  dimension is not positive
+     */
+    public PagedTerrainMap(
+            String name,
+            int tileWidth,
+            int tileHeight,
+            int tileCols,
+            int tileRows,
+            Map<String, String> metadata,
+            int maxCachedTiles,
+            TileLoader loader) {
+        super(name, tileWidth * tileCols, tileHeight * tileRows, metadata);
+        if (maxCachedTiles < 1) {
+            throw new IllegalArgumentException("The maxCachedTiles argument must be at least 1.");
+        }
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.tileCols = tileCols;
+        this.tileRows = tileRows;
+        this.maxCachedTiles = maxCachedTiles;
+        this.loader = Objects.requireNonNull(loader);
+    }
+
+    @Override
+    protected byte terrainCode(int x, int y) {
+        final int tileX = x / tileWidth;
+        final int tileY = y / tileHeight;
+        final byte[] tile = tile(tileX, tileY);
+        if (tile == NO_TILE) {
+            return TerrainType.NO_CODE;
+        }
+        return tile[(y - tileY * tileHeight) * tileWidth + (x - tileX * tileWidth)];
+    }
+
+    private byte[] tile(int tileX, int tileY) {
+        final int index = tileY * tileCols + tileX;
+        final LastTile last = lastTile.get();
+        if (index == last.index()) {
+            return last.cells();
+        }
+        Tile tile = tiles.get(index);
+        if (tile == null) {
+            final Tile load = new Tile();
+            tile = tiles.putIfAbsent(index, load);
+            if (tile == null) {
+                // this thread won the race to load the tile
+                tile = load;
+                load(tileX, tileY, index, load);
+            }
+        }
+        tile.lastUsed = clock.incrementAndGet();
+        final byte[] cells;
+        try {
+            cells = tile.cells.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+        lastTile.set(new LastTile(index, cells));
+        return cells;
+    }
+
+    private void load(int tileX, int tileY, int index, Tile tile) {
+        try {
+            byte[] cells = loader.loadTile(tileX, tileY);
+            loadCount.incrementAndGet();
+            if (cells == null) {
+                cells = NO_TILE;
+            } else if (cells.length != tileWidth * tileHeight) {
+                throw new IllegalArgumentException(
+                        "Inconsistent tile size: expected %d cells but got %d for tile (%d,%d)"
+                                .formatted(tileWidth * tileHeight, cells.length, tileX, tileY));
+            }
+            tile.lastUsed = clock.incrementAndGet();
+            tile.cells.complete(cells);
+        } catch (RuntimeException e) {
+            // allow the tile to be loaded again
+            tiles.remove(index, tile);
+            tile.cells.completeExceptionally(e);
+            throw e;
+        }
+        evict();
+    }
+
+    private void evict() {
+        while (tiles.size() > maxCachedTiles) {
+            Entry<Integer, Tile> eldest = null;
+            for (Entry<Integer, Tile> e : tiles.entrySet()) {
+                final Tile tile = e.getValue();
+                if (tile.cells.isDone() && (eldest == null || tile.lastUsed < eldest.getValue().lastUsed)) {
+                    eldest = e;
+                }
+            }
+            if (eldest == null) {
+                // only tiles still loading, which will evict once loaded
+                return;
+            }
+            tiles.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * Get the tile width.
+     *
+     * @return the tile width
+     */
+    public int tileWidth() {
+        return tileWidth;
+    }
+
+    /**
+     * Get the tile height.
+     *
+     * @return the tile height
+     */
+    public int tileHeight() {
+        return tileHeight;
+    }
+
+    /**
+     * Get the number of tiles currently held in memory.
+     *
+     * @return the cached tile count
+     */
+    public int cachedTileCount() {
+        return tiles.size();
+    }
+
+    /**
+     * Get the number of times a tile has been loaded.
+     *
+     * @return the tile load count
+     */
+    public long loadCount() {
+        return loadCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "PagedTerrainMap{width=" + width() + ", height=" + height() + ", tileWidth=" + tileWidth
+                + ", tileHeight=" + tileHeight + ", cachedTiles=" + cachedTileCount() + "}";
+    }
+}
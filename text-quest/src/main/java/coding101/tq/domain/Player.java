@@ -1,13 +1,15 @@
 package coding101.tq.domain;
 
 import coding101.tq.GameConfiguration;
+import coding101.tq.domain.items.InventoryItem;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.TreeSet;
 
 /**
  * A player.
@@ -25,12 +27,17 @@ public class Player {
     private int xp;
     private final PlayerItems items = new PlayerItems();
     private Map<String, VisitedMap> visitedMaps = new HashMap<>(2);
-    private Map<String, Set<Coordinate>> interactions = new HashMap<>(16);
+    private Map<String, CoordinateSet> interactions = new HashMap<>(16);
 
     // a mapping of dynamic vehicles (ships) for each map
     // the nested map keys represent the coordinate the ship starts at on the map
     // and the associated value is the ships current position
-    private Map<String, Map<Coordinate, Coordinate>> vehicles = new HashMap<>(8);
+    private Map<String, VehicleIndex> vehicles = new HashMap<>(8);
+
+    // the map data changed since the last call to takeChanges(), when tracking changes
+    private Map<String, CoordinateSet> visitChanges;
+    private Map<String, CoordinateSet> interactionChanges;
+    private Map<String, CoordinateMap> vehicleChanges;
 
     /**
      * Constructor.
@@ -120,16 +127,14 @@ public class Player {
     public boolean moveTo(TerrainMap map, int x, int y) {
         if (onboard != null) {
             // update vehicle coordinate to match
-            Map<Coordinate, Coordinate> mapVehicles = vehicles.get(map.getName());
-            Coordinate vehicleOrigCoord = null;
-            for (Entry<Coordinate, Coordinate> e : mapVehicles.entrySet()) {
-                if (e.getValue().x() == this.x && e.getValue().y() == this.y) {
-                    vehicleOrigCoord = e.getKey();
-                    break;
-                }
-            }
-            if (vehicleOrigCoord != null) {
-                mapVehicles.put(vehicleOrigCoord, new Coordinate(x, y));
+            VehicleIndex mapVehicles = vehicles.get(map.getName());
+            final long vehicleCoord = Coordinate.pack(this.x, this.y);
+            if (mapVehicles != null && mapVehicles.locatedAt(vehicleCoord)) {
+                moveVehicle(
+                        map.getName(),
+                        mapVehicles,
+                        mapVehicles.originAt(vehicleCoord, vehicleCoord),
+                        Coordinate.pack(x, y));
             }
         }
         setX(x);
@@ -276,35 +281,24 @@ public class Player {
      * Board the vehicle at the player's current location.
      */
     public void board() {
-        final Coordinate coord = new Coordinate(x, y);
+        final long coord = Coordinate.pack(x, y);
 
         // have to consult vehicles data for moved ship locations
-        Map<Coordinate, Coordinate> mapVehicles = vehicles.get(activeMapName);
+        VehicleIndex mapVehicles = vehicles.computeIfAbsent(activeMapName, k -> new VehicleIndex());
 
-        // find the ship "origin": its original position encoded on the map
-        Coordinate shipOrigin = null;
-        if (mapVehicles != null) {
-            for (Entry<Coordinate, Coordinate> e : mapVehicles.entrySet()) {
-                Coordinate shipCoord = e.getValue();
-                if (shipCoord.equals(coord)) {
-                    // found the ship's current location
-                    shipOrigin = e.getKey();
-                    break;
-                }
-            }
-        }
-        if (shipOrigin == null) {
-            // origin must be current location
-            shipOrigin = coord;
-        }
+        // find the ship "origin": its original position encoded on the map; if the
+        // ship has not moved then the origin must be current location
+        final long shipOrigin = mapVehicles.originAt(coord, coord);
 
-        this.onboard = shipOrigin;
+        this.onboard = Coordinate.unpack(shipOrigin);
+        moveVehicle(activeMapName, mapVehicles, shipOrigin, coord);
+    }
 
-        if (mapVehicles == null) {
-            mapVehicles = new TreeMap<>();
-            vehicles.put(activeMapName, mapVehicles);
+    private void moveVehicle(String mapName, VehicleIndex mapVehicles, long origin, long location) {
+        mapVehicles.moveTo(origin, location);
+        if (vehicleChanges != null) {
+            vehicleChanges.computeIfAbsent(mapName, k -> new CoordinateMap()).put(origin, location);
         }
-        mapVehicles.put(shipOrigin, coord);
     }
 
     /**
@@ -408,8 +402,12 @@ public class Player {
         // TODO: walking on lava should decrease player's health
 
         // update the visited state of this coordinate
-        VisitedMap visited = visitedMaps.computeIfAbsent(map.getName(), name -> new VisitedMap());
+        VisitedMap visited =
+                visitedMaps.computeIfAbsent(map.getName(), name -> new VisitedMap(map.width(), map.height()));
         boolean result = visited.visit(x, y);
+        if (result && visitChanges != null) {
+            visitChanges.computeIfAbsent(map.getName(), k -> new CoordinateSet()).add(x, y);
+        }
         return result;
     }
 
@@ -472,9 +470,12 @@ public class Player {
      */
     public boolean interacted(TerrainMap map, int x, int y) {
         assert map != null;
-        // use TreeSet here just for convenience of keeping sorted for persistence
-        Set<Coordinate> mapInteractions = interactions.computeIfAbsent(map.getName(), k -> new TreeSet<>());
-        return mapInteractions.add(new Coordinate(x, y));
+        CoordinateSet mapInteractions = interactions.computeIfAbsent(map.getName(), k -> new CoordinateSet());
+        boolean result = mapInteractions.add(x, y);
+        if (result && interactionChanges != null) {
+            interactionChanges.computeIfAbsent(map.getName(), k -> new CoordinateSet()).add(x, y);
+        }
+        return result;
     }
 
     /**
@@ -486,8 +487,8 @@ public class Player {
      * @return {@code true} if the coordinate has been interacted with before
      */
     public boolean hasInteracted(TerrainMap map, int x, int y) {
-        Set<Coordinate> mapInteractions = interactions.get(map.getName());
-        return (mapInteractions != null ? mapInteractions.contains(new Coordinate(x, y)) : false);
+        CoordinateSet mapInteractions = interactions.get(map.getName());
+        return (mapInteractions != null ? mapInteractions.contains(x, y) : false);
     }
 
     /**
@@ -496,10 +497,18 @@ public class Player {
      * This is a mapping of {@link TerrainMap} names to associated coordinates at
      * which the player has "interacted" already, for example by opening a chest.
      *
-     * @return the interactions, never {@literal null}
+     * @return a sorted copy of the interactions, never {@literal null}
      */
     public Map<String, Set<Coordinate>> getInteractions() {
-        return interactions;
+        return toCoordinateSets(interactions);
+    }
+
+    private static Map<String, Set<Coordinate>> toCoordinateSets(Map<String, CoordinateSet> data) {
+        Map<String, Set<Coordinate>> result = new TreeMap<>();
+        for (Entry<String, CoordinateSet> e : data.entrySet()) {
+            result.put(e.getKey(), e.getValue().toCoordinates());
+        }
+        return result;
     }
 
     /**
@@ -508,7 +517,17 @@ public class Player {
      * @param interactions the interactions to set
      */
     public void setInteractions(Map<String, Set<Coordinate>> interactions) {
-        this.interactions = interactions;
+        Map<String, CoordinateSet> data = new HashMap<>(16);
+        if (interactions != null) {
+            for (Entry<String, Set<Coordinate>> e : interactions.entrySet()) {
+                CoordinateSet set = new CoordinateSet(e.getValue().size());
+                for (Coordinate c : e.getValue()) {
+                    set.add(c.x(), c.y());
+                }
+                data.put(e.getKey(), set);
+            }
+        }
+        this.interactions = data;
     }
 
     /**
@@ -518,10 +537,14 @@ public class Player {
      * vehicle origin coordinates to associated current coordinates, to track the
      * location of vehicles as they are moved.
      *
-     * @return the vehicle location data
+     * @return a sorted copy of the vehicle location data
      */
     public Map<String, Map<Coordinate, Coordinate>> getVehicles() {
-        return vehicles;
+        Map<String, Map<Coordinate, Coordinate>> result = new TreeMap<>();
+        for (Entry<String, VehicleIndex> e : vehicles.entrySet()) {
+            result.put(e.getKey(), e.getValue().toCoordinates());
+        }
+        return result;
     }
 
     /**
@@ -530,7 +553,17 @@ public class Player {
      * @param vehicles the vehicle location data to set
      */
     public void setVehicles(Map<String, Map<Coordinate, Coordinate>> vehicles) {
-        this.vehicles = vehicles;
+        Map<String, VehicleIndex> data = new HashMap<>(8);
+        if (vehicles != null) {
+            for (Entry<String, Map<Coordinate, Coordinate>> e : vehicles.entrySet()) {
+                VehicleIndex map = new VehicleIndex(e.getValue().size());
+                for (Entry<Coordinate, Coordinate> v : e.getValue().entrySet()) {
+                    map.moveTo(v.getKey().pack(), v.getValue().pack());
+                }
+                data.put(e.getKey(), map);
+            }
+        }
+        this.vehicles = data;
     }
 
     /**
@@ -542,20 +575,15 @@ public class Player {
      * @return {@literal true} if a ship is located at the given point
      */
     public boolean vehicleLocatedAt(TerrainMap map, int x, int y) {
-        Map<Coordinate, Coordinate> mapVehicles = vehicles.get(map.getName());
+        VehicleIndex mapVehicles = vehicles.get(map.getName());
         boolean shipMoved = false;
         if (mapVehicles != null) {
-            // search current vehicle locations for coordinate match
-            for (Entry<Coordinate, Coordinate> e : mapVehicles.entrySet()) {
-                Coordinate coord = e.getValue();
-                if (coord.x() == x && coord.y() == y) {
-                    return true;
-                }
-                coord = e.getKey();
-                if (coord.x() == x && coord.y() == y) {
-                    shipMoved = true;
-                }
+            // look up current vehicle locations for coordinate match
+            final long coord = Coordinate.pack(x, y);
+            if (mapVehicles.locatedAt(coord)) {
+                return true;
             }
+            shipMoved = mapVehicles.tracked(coord);
         }
         return map.terrainAt(x, y) == TerrainType.Ship && !shipMoved;
     }
@@ -581,4 +609,85 @@ public class Player {
         // TODO: finish validation that player can move to specified coordinate
         return true;
     }
+
+    /**
+     * Start tracking changes to the player.
+     *
+     * Once started, the changes made to the player can be collected by calling
+     * {@link #takeChanges()}.
+     */
+    public void trackChanges() {
+        visitChanges = new HashMap<>(2);
+        interactionChanges = new HashMap<>(2);
+        vehicleChanges = new HashMap<>(2);
+    }
+
+    /**
+     * Collect the changes made to the player since tracking started, or since
+     * this method was last called.
+     *
+     * @return the changes
+     * @throws IllegalStateException if {@link #trackChanges()} has not been called
+     */
+    public PlayerChanges takeChanges() {
+        if (visitChanges == null) {
+            throw new IllegalStateException("Player changes are not being tracked.");
+        }
+        Map<String, Map<Coordinate, Coordinate>> movedVehicles = new TreeMap<>();
+        for (Entry<String, CoordinateMap> e : vehicleChanges.entrySet()) {
+            movedVehicles.put(e.getKey(), e.getValue().toCoordinates());
+        }
+        PlayerChanges result = new PlayerChanges(
+                activeMapName,
+                x,
+                y,
+                onboard,
+                health,
+                maxHealth,
+                coins,
+                xp,
+                // clone the items, as they are mutable and changes may be saved on another thread
+                items.getItems().stream().map(InventoryItem::clone).toList(),
+                toCoordinateSets(visitChanges),
+                toCoordinateSets(interactionChanges),
+                movedVehicles);
+        trackChanges();
+        return result;
+    }
+
+    /**
+     * Apply changes to the player.
+     *
+     * @param changes the changes to apply
+     * @see #takeChanges()
+     */
+    public void apply(PlayerChanges changes) {
+        activeMapName = changes.activeMapName();
+        x = changes.x();
+        y = changes.y();
+        onboard = changes.onboard();
+        health = changes.health();
+        maxHealth = changes.maxHealth();
+        coins = changes.coins();
+        xp = changes.xp();
+        items.setItems(new ArrayList<>(changes.items()));
+        for (Entry<String, Set<Coordinate>> e : changes.visited().entrySet()) {
+            VisitedMap visited = visitedMaps.computeIfAbsent(e.getKey(), k -> new VisitedMap());
+            for (Coordinate c : e.getValue()) {
+                visited.visit(c.x(), c.y());
+            }
+        }
+        for (Entry<String, Set<Coordinate>> e : changes.interactions().entrySet()) {
+            CoordinateSet set = interactions.computeIfAbsent(e.getKey(), k -> new CoordinateSet());
+            for (Coordinate c : e.getValue()) {
+                set.add(c.x(), c.y());
+            }
+        }
+        for (Entry<String, Map<Coordinate, Coordinate>> e : changes.vehicles().entrySet()) {
+            VehicleIndex index = vehicles.computeIfAbsent(e.getKey(), k -> new VehicleIndex());
+            for (Entry<Coordinate, Coordinate> v : e.getValue().entrySet()) {
+                index.moveTo(v.getKey().pack(), v.getValue().pack());
+            }
+        }
+    }
 }
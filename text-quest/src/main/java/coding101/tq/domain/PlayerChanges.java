@@ -0,0 +1,63 @@
+package coding101.tq.domain;
+
+import coding101.tq.domain.items.InventoryItem;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The changes made to a player over a period of play, as a single game journal
+ * entry.
+ *
+ * The simple player properties are captured in full, as they are cheap to
+ * store. The map-related data only includes what changed over the period:
+ * newly visited and interacted coordinates, and the latest coordinate of each
+ * moved vehicle. Applying a sequence of changes in order to a player restores
+ * the state of the player at the time of the last change.
+ *
+ * @param activeMapName the active map name
+ * @param x             the player X coordinate
+ * @param y             the player Y coordinate
+ * @param onboard       the origin coordinate of the boarded vehicle, or
+ *                      {@code null} if not on board
+ * @param health        the player health
+ * @param maxHealth     the player maximum health
+ * @param coins         the player coins
+ * @param xp            the player experience points
+ * @param items         the player items
+ * @param visited       the newly visited coordinates, by map name
+ * @param interactions  the newly interacted coordinates, by map name
+ * @param vehicles      the moved vehicle origin to current coordinates, by map
+ *                      name
+ * @see Player#takeChanges()
+ * @see Player#apply(PlayerChanges)
+ */
+@JsonInclude(Include.NON_EMPTY)
+public record PlayerChanges(
+        String activeMapName,
+        int x,
+        int y,
+        Coordinate onboard,
+        int health,
+        int maxHealth,
+        int coins,
+        int xp,
+        List<InventoryItem> items,
+        Map<String, Set<Coordinate>> visited,
+        Map<String, Set<Coordinate>> interactions,
+        Map<String, Map<Coordinate, Coordinate>> vehicles) {
+
+    /**
+     * Constructor.
+     *
+     * Any {@code null} collection argument is replaced by an empty collection.
+     */
+    public PlayerChanges {
+        items = (items != null ? items : List.of());
+        visited = (visited != null ? visited : Map.of());
+        interactions = (interactions != null ? interactions : Map.of());
+        vehicles = (vehicles != null ? vehicles : Map.of());
+    }
+}
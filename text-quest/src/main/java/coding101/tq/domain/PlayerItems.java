@@ -1,8 +1,14 @@
 package coding101.tq.domain;
 
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
 import coding101.tq.domain.items.InventoryItem;
+import coding101.tq.domain.items.ItemType;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The player item list.
@@ -36,6 +42,29 @@ public class PlayerItems {
         this.items = items != null ? items : new ArrayList<>(4);
     }
 
+    /**
+     * Get an ordered mapping of item types to associated items that are equipped.
+     *
+     * @return the equipped items grouped by type
+     */
+    public Map<ItemType, List<InventoryItem>> equippedItemsByType() {
+        return items.stream()
+                .filter(InventoryItem::isEquipped)
+                .collect(groupingBy(InventoryItem::type, () -> new EnumMap<>(ItemType.class), toList()));
+    }
+
+    /**
+     * Get an ordered mapping of item types to associated items that can be
+     * equipped (or used).
+     *
+     * @return the equipable items grouped by type
+     */
+    public Map<ItemType, List<InventoryItem>> equipableItemsByType() {
+        return items.stream()
+                .filter(item -> !item.isEquipped())
+                .collect(groupingBy(InventoryItem::type, () -> new EnumMap<>(ItemType.class), toList()));
+    }
+
     /**
      * Add an item to the inventory.
      *
@@ -5,6 +5,7 @@ import static java.util.Objects.requireNonNull;
 import coding101.tq.domain.items.InventoryItem;
 import java.util.Collections;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 /**
  * A shop helper class, to facilitate the buying and selling of items.
@@ -25,21 +26,30 @@ public class Shop {
      *                             offering to purchase an item; the discount is
      *                             applied to the original sale price
      * @param sellItemsMaximum     the maximum number of items the shop can sell
+     * @param random               the random number generator for choosing the
+     *                             items for sale
      * @throws IllegalArgumentException if any argument is {@code null}
      */
-    public Shop(PlayerItems gameItems, Player player, double purchaseRateDiscount, int sellItemsMaximum) {
+    public Shop(
+            PlayerItems gameItems,
+            Player player,
+            double purchaseRateDiscount,
+            int sellItemsMaximum,
+            RandomGenerator random) {
         super();
         this.player = requireNonNull(player);
         this.purchaseRateDiscount = purchaseRateDiscount;
-        this.itemsForSale = generateItemsForSale(gameItems, player, sellItemsMaximum);
+        this.itemsForSale = generateItemsForSale(gameItems, player, sellItemsMaximum, requireNonNull(random));
     }
 
-    private static List<InventoryItem> generateItemsForSale(PlayerItems gameItems, Player player, int maxItems) {
+    private static List<InventoryItem> generateItemsForSale(
+            PlayerItems gameItems, Player player, int maxItems, RandomGenerator random) {
         // TODO: generate a list of at most maxItems items to offer for sale to the
         // player. Only items whose minimumXp is less than, or equal to, the player's xp
         // should be offered for sale. The offered item selection should be WEIGHTED
         // such that the higher an item's minimumXp is, the LESS LIKELY that item will
-        // be offered.
+        // be offered. Use the random generator for any chance, so games can be
+        // replayed.
 
         return Collections.emptyList();
     }
@@ -0,0 +1,52 @@
+package coding101.tq.domain;
+
+import com.googlecode.lanterna.TextColor;
+import java.util.Objects;
+
+/**
+ * The resolved terrain colors of a {@link ColorScheme}.
+ *
+ * All colors are resolved when constructed, so looking up a terrain color is a
+ * simple array access.
+ */
+public final class TerrainColors {
+
+    private final TextColor[] foreground;
+    private final TextColor[] background;
+
+    /**
+     * Constructor.
+     *
+     * @param scheme            the color scheme
+     * @param defaultForeground the default foreground color
+     * @param defaultBackground the default background color
+     * @throws IllegalArgumentException if any color reference in the scheme is not
+     *                                  supported
+     */
+    public TerrainColors(ColorScheme scheme, TextColor defaultForeground, TextColor defaultBackground) {
+        super();
+        Objects.requireNonNull(scheme);
+        this.foreground = scheme.foreground().terrainColors(defaultForeground);
+        this.background = scheme.background().terrainColors(defaultBackground);
+    }
+
+    /**
+     * Get the foreground color of a terrain.
+     *
+     * @param type the terrain type, or {@code null} for no terrain
+     * @return the color
+     */
+    public TextColor foreground(TerrainType type) {
+        return foreground[TerrainType.codeFor(type)];
+    }
+
+    /**
+     * Get the background color of a terrain.
+     *
+     * @param type the terrain type, or {@code null} for no terrain
+     * @return the color
+     */
+    public TextColor background(TerrainType type) {
+        return background[TerrainType.codeFor(type)];
+    }
+}
@@ -1,6 +1,5 @@
 package coding101.tq.domain;
 
-import coding101.tq.Game;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -9,14 +8,23 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * A map of terrain, as a 2D array of rows.
+ * A map of terrain, as a 2D grid of rows.
+ *
+ * The terrain is stored as a flat array of {@link TerrainType#code()} values,
+ * one byte per cell in row-major order. Cells without any terrain (for example
+ * holes left by missing map tiles) are stored as {@link TerrainType#NO_CODE}.
+ * Extending classes can provide alternative storage by overriding
+ * {@link #terrainCode(int, int)}.
+ *
+ * A map never changes once created, so a single instance can be shared by any
+ * number of games. The state a player changes as they play, such as opened
+ * chests, moved ships, and shops, is kept by the {@link Player} and a
+ * {@link MapOverlay} instead.
  */
 public class TerrainMap {
 
@@ -26,14 +34,22 @@ public class TerrainMap {
     /** Metadata key for a starting coordinate in the form X,Y. */
     public static final String START_META = "start";
 
+    /**
+     * Get the name of the child map entered from a coordinate on a main map.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the child map name, like {@code 0001,0002}
+     */
+    public static String childMapName(int x, int y) {
+        return "%04d,%04d".formatted(x, y);
+    }
+
     private final String name;
     private final Map<String, String> metadata;
     private final int width;
     private final int height;
-    private final TerrainType[][] terrain;
-
-    // a transient mapping of coordinates to associated Shop instances
-    private Map<Coordinate, Shop> shops = new HashMap<>(2);
+    private final byte[] cells;
 
     /**
      * Constructor.
@@ -48,15 +64,79 @@ public class TerrainMap {
             @JsonProperty("name") String name,
             @JsonProperty("terrain") TerrainType[][] terrain,
             @JsonProperty("metadata") Map<String, String> metadata) {
+        this(name, terrainWidth(terrain), Objects.requireNonNull(terrain).length, encode(terrain), metadata);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name     the map name
+     * @param width    the terrain width
+     * @param height   the terrain height
+     * @param cells    the terrain codes, in row-major order; this array is used
+     *                 directly, not copied
+     * @param metadata the metadata
+     * @throws IllegalArgumentException if any argument is {@literal null} or the
+     *                                  dimensions do not match the cell data
+     */
+    public TerrainMap(String name, int width, int height, byte[] cells, Map<String, String> metadata) {
         super();
         this.name = Objects.requireNonNull(name);
-        this.terrain = Objects.requireNonNull(terrain);
+        this.cells = Objects.requireNonNull(cells);
         this.metadata = Collections.unmodifiableMap(Objects.requireNonNull(metadata));
-        if (terrain.length < 1 || terrain[0] == null || terrain[0].length < 1) {
+        if (width < 1 || height < 1 || cells.length != width * height) {
+            throw new IllegalArgumentException("Invalid terrain cells: expected %dx%d non-empty cells but got %d."
+                    .formatted(width, height, cells.length));
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Constructor for extending classes that provide their own terrain storage.
+     *
+     * Extending classes must override {@link #terrainCode(int, int)}.
+     *
+     * @param name     the map name
+     * @param width    the terrain width
+     * @param height   the terrain height
+     * @param metadata the metadata
+     * @throws IllegalArgumentException if any argument is {@literal null} or the
+     *                                  dimensions are not positive
+     */
+    protected TerrainMap(String name, int width, int height, Map<String, String> metadata) {
+        super();
+        this.name = Objects.requireNonNull(name);
+        this.cells = null;
+        this.metadata = Collections.unmodifiableMap(Objects.requireNonNull(metadata));
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid terrain dimensions: expected non-empty but got %dx%d.".formatted(width, height));
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    private static int terrainWidth(TerrainType[][] terrain) {
+        if (terrain == null || terrain.length < 1 || terrain[0] == null || terrain[0].length < 1) {
             throw new IllegalArgumentException("Invalid terrain array: must have at least 1 non-empty element.");
         }
-        this.width = terrain[0].length;
-        this.height = terrain.length;
+        return terrain[0].length;
+    }
+
+    private static byte[] encode(TerrainType[][] terrain) {
+        final int w = terrainWidth(terrain);
+        final byte[] result = new byte[w * terrain.length];
+        for (int row = 0; row < terrain.length; row++) {
+            TerrainType[] r = terrain[row];
+            if (r == null) {
+                continue;
+            }
+            for (int col = 0, len = Math.min(w, r.length); col < len; col++) {
+                result[row * w + col] = TerrainType.codeFor(r[col]);
+            }
+        }
+        return result;
     }
 
     /**
@@ -99,11 +179,32 @@ public class TerrainMap {
     /**
      * Get the terrain.
      *
+     * This returns a newly allocated copy of the terrain, as a 2D array of rows.
+     * Cells without any terrain will be {@code null}.
+     *
      * @return the terrain
      */
     @JsonGetter(value = "terrain")
     public TerrainType[][] terrain() {
-        return terrain;
+        TerrainType[][] result = new TerrainType[height][width];
+        for (int row = 0; row < height; row++) {
+            TerrainType[] r = result[row];
+            for (int col = 0; col < width; col++) {
+                r[col] = TerrainType.forCode(terrainCode(col, row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the terrain code at a specific coordinate.
+     *
+     * @param x the x coordinate; must be within the map bounds
+     * @param y the y coordinate; must be within the map bounds
+     * @return the {@link TerrainType#code()} value
+     */
+    protected byte terrainCode(int x, int y) {
+        return cells[y * width + x];
     }
 
     /**
@@ -118,9 +219,9 @@ public class TerrainMap {
     public Coordinate startingCoordinate() {
         String start = metadata.get(START_META);
         if (start != null) {
-            Matcher m = COORDINATE_REGEX.matcher(start);
-            if (m.find()) {
-                return new Coordinate(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+            final long packed = Coordinate.find(start, true);
+            if (packed >= 0) {
+                return Coordinate.unpack(packed);
             }
         }
         return new Coordinate(9, 9);
@@ -138,7 +239,7 @@ public class TerrainMap {
         if (x >= width || y >= height || x < 0 || y < 0) {
             return TerrainType.Empty;
         }
-        return terrain[y][x];
+        return TerrainType.forCode(terrainCode(x, y));
     }
 
     @Override
@@ -177,12 +278,13 @@ public class TerrainMap {
      * @param out    the destination
      */
     public void walk(int x, int y, int width, int height, TerrainConsumer out) {
-        int maxCol = x + width;
-        int maxRow = y + height;
+        final int maxCol = x + width;
+        final int maxRow = y + height;
         for (int row = y; row < maxRow; row++) {
+            final boolean rowInBounds = row >= 0 && row < this.height;
             for (int col = x; col < maxCol; col++) {
-                TerrainType[] r = row < terrain.length ? terrain[row] : null;
-                TerrainType t = r != null && col < r.length ? r[col] : null;
+                TerrainType t =
+                        rowInBounds && col >= 0 && col < this.width ? TerrainType.forCode(terrainCode(col, row)) : null;
                 out.accept(col, row, t);
             }
         }
@@ -201,9 +303,7 @@ public class TerrainMap {
                 if (col == x && row == y) {
                     continue;
                 }
-                TerrainType[] r = row < terrain.length ? terrain[row] : null;
-                TerrainType t = r != null && col < r.length ? r[col] : null;
-                out.accept(col, row, t);
+                out.accept(col, row, TerrainType.forCode(terrainCode(col, row)));
             }
         }
     }
@@ -273,24 +373,4 @@ public class TerrainMap {
             }
         }
     }
-
-    /**
-     * Get a shop instance at a given coordinate.
-     *
-     * This method caches shop instances, so the same shop is always returned. In
-     * this way a shop can "run out" of items for sale, until you leave and re-enter
-     * the map.
-     *
-     * @param x    the x coordinate
-     * @param y    the y coordinate
-     * @param game the game
-     * @return the shop
-     */
-    public Shop shopAt(int x, int y, Game game) {
-        final double purchaseRateDiscount = game.player().config().shop().purchaseRateDiscount();
-        final int sellItemsMaximum = 3; // maybe configure somewhere?
-        return shops.computeIfAbsent(
-                new Coordinate(x, y),
-                coord -> new Shop(game.items(), game.player(), purchaseRateDiscount, sellItemsMaximum));
-    }
 }
@@ -2,6 +2,7 @@ package coding101.tq.domain;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import java.util.Arrays;
 
 /**
  * Enumeration of terrain types.
@@ -61,6 +62,22 @@ public enum TerrainType {
     public static final char WALL_HORIZONTAL = '-';
     public static final char WALL_CORNER = '+';
 
+    /** A compact code value that represents "no terrain", for example a map hole. */
+    public static final byte NO_CODE = 0;
+
+    private static final TerrainType[] VALUES = values();
+
+    // lookup table of US_ASCII key characters to associated codes
+    private static final byte[] KEY_CODES = new byte[128];
+
+    static {
+        Arrays.fill(KEY_CODES, (byte) (Empty.ordinal() + 1));
+        KEY_CODES[0] = NO_CODE;
+        for (TerrainType t : VALUES) {
+            KEY_CODES[t.key] = t.code();
+        }
+    }
+
     private final char key;
 
     private TerrainType(char key) {
@@ -77,6 +94,65 @@ public enum TerrainType {
         return key;
     }
 
+    /**
+     * Get a compact code value for this type.
+     *
+     * The code is the enum ordinal plus one, so that {@link #NO_CODE} can be used
+     * to represent the absence of any terrain.
+     *
+     * @return the code
+     */
+    public byte code() {
+        return (byte) (ordinal() + 1);
+    }
+
+    /**
+     * Get a compact code value for a type.
+     *
+     * @param type the type to get the code for; may be {@code null}
+     * @return the code, or {@link #NO_CODE} if {@code type} is {@code null}
+     */
+    public static byte codeFor(TerrainType type) {
+        return type != null ? type.code() : NO_CODE;
+    }
+
+    /**
+     * Get an enum value for a compact code value.
+     *
+     * @param code the code, as returned by {@link #code()}
+     * @return the enum value, or {@code null} for {@link #NO_CODE} or any
+     *         unsupported value
+     */
+    public static TerrainType forCode(byte code) {
+        return (code > 0 && code <= VALUES.length ? VALUES[code - 1] : null);
+    }
+
+    /**
+     * Get a compact code value for a key.
+     *
+     * This is a table-driven equivalent of {@code forKey(key).code()}, with the
+     * addition that the {@code NUL} character is mapped to {@link #NO_CODE}.
+     *
+     * @param key the key, as a {@code US_ASCII} character value
+     * @return the code
+     */
+    public static byte codeForKey(int key) {
+        return (key >= 0 && key < KEY_CODES.length ? KEY_CODES[key] : KEY_CODES[EMPTY]);
+    }
+
+    /**
+     * Get the key for a compact code value.
+     *
+     * This is the inverse of {@link #codeForKey(int)}.
+     *
+     * @param code the code
+     * @return the key, or the {@code NUL} character for {@link #NO_CODE}
+     */
+    public static char keyForCode(byte code) {
+        TerrainType t = forCode(code);
+        return (t != null ? t.key : 0);
+    }
+
     /**
      * Get an enum value for a key.
      *
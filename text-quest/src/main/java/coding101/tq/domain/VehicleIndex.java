@@ -0,0 +1,111 @@
+package coding101.tq.domain;
+
+import java.util.SortedMap;
+
+/**
+ * The locations of the dynamic vehicles (ships) on a single map.
+ *
+ * Each vehicle is identified by its origin coordinate, the coordinate it is
+ * located at in the map terrain, and has a current coordinate it has been moved
+ * to. Both are indexed, so finding a vehicle by either coordinate does not
+ * depend on the number of vehicles. No two vehicles can be located at the same
+ * current coordinate.
+ *
+ * This class is not thread-safe.
+ */
+public final class VehicleIndex {
+
+    // vehicle origin -> current location
+    private final CoordinateMap locations;
+
+    // vehicle current location -> origin
+    private final CoordinateMap origins;
+
+    /**
+     * Constructor.
+     */
+    public VehicleIndex() {
+        this(8);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize the expected number of vehicles
+     */
+    public VehicleIndex(int expectedSize) {
+        super();
+        this.locations = new CoordinateMap(expectedSize);
+        this.origins = new CoordinateMap(expectedSize);
+    }
+
+    /**
+     * Set the current location of a vehicle.
+     *
+     * @param origin   the packed vehicle origin coordinate
+     * @param location the packed coordinate the vehicle is now located at
+     */
+    public void moveTo(long origin, long location) {
+        if (locations.containsKey(origin)) {
+            origins.remove(locations.get(origin, origin));
+        }
+        locations.put(origin, location);
+        origins.put(location, origin);
+    }
+
+    /**
+     * Find the origin of the vehicle currently located at a coordinate.
+     *
+     * @param location     the packed coordinate to look for a vehicle at
+     * @param defaultValue the value to return if no vehicle is located at
+     *                     {@code location}
+     * @return the packed vehicle origin coordinate, or {@code defaultValue}
+     */
+    public long originAt(long location, long defaultValue) {
+        return origins.get(location, defaultValue);
+    }
+
+    /**
+     * Test if a tracked vehicle is currently located at a coordinate.
+     *
+     * @param location the packed coordinate to test
+     * @return {@code true} if a tracked vehicle is located at {@code location}
+     */
+    public boolean locatedAt(long location) {
+        return origins.containsKey(location);
+    }
+
+    /**
+     * Test if a vehicle with a given origin is tracked.
+     *
+     * @param origin the packed vehicle origin coordinate
+     * @return {@code true} if the vehicle with origin {@code origin} is tracked,
+     *         and thus might have moved from its origin
+     */
+    public boolean tracked(long origin) {
+        return locations.containsKey(origin);
+    }
+
+    /**
+     * Get the number of tracked vehicles.
+     *
+     * @return the vehicle count
+     */
+    public int size() {
+        return locations.size();
+    }
+
+    /**
+     * Get a sorted copy of the vehicle origin to current location coordinates.
+     *
+     * @return the coordinates
+     */
+    public SortedMap<Coordinate, Coordinate> toCoordinates() {
+        return locations.toCoordinates();
+    }
+
+    @Override
+    public String toString() {
+        return locations.toString();
+    }
+}
@@ -1,32 +1,132 @@
 package coding101.tq.domain;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
 /**
  * A map of "visited" terrain.
+ *
+ * The visited coordinates are stored in a dense bitmap, in row-major order.
+ * A second bitmap tracks all coordinates within one cell of a visited
+ * coordinate, and is updated as coordinates are visited, so both
+ * {@link #hasVisited(int, int)} and {@link #hasVisitedNear(int, int)} are a
+ * single bit test. The bitmaps grow as needed to hold the visited coordinates.
  */
 public class VisitedMap {
 
-    private SortedMap<Integer, BitSet> visitedRows = new TreeMap<>();
+    // the number of 64-bit words in each bitmap row
+    private int rowWords;
+
+    // the number of bitmap rows
+    private int rows;
+
+    // the visited coordinates
+    private long[] visited;
+
+    // the coordinates within one cell of a visited coordinate
+    private long[] near;
 
     /**
      * Constructor.
      */
     public VisitedMap() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param width  the expected map width
+     * @param height the expected map height
+     */
+    public VisitedMap(int width, int height) {
         super();
+        // allow for the "near" column and row just beyond the map edge
+        this.rowWords = (Math.max(0, width) >>> 6) + 1;
+        this.rows = Math.max(0, height) + 1;
+        this.visited = new long[rowWords * rows];
+        this.near = new long[rowWords * rows];
     }
 
     /**
      * Get the visited data.
      *
-     * @return the visited data
+     * @return a copy of the visited data, as a mapping of row indexes to the
+     *         visited columns in that row
      */
     @JsonGetter(value = "visited")
     public SortedMap<Integer, BitSet> visited() {
-        return visitedRows;
+        SortedMap<Integer, BitSet> result = new TreeMap<>();
+        for (int row = 0; row < rows; row++) {
+            final int start = row * rowWords;
+            for (int i = start, end = start + rowWords; i < end; i++) {
+                if (visited[i] != 0) {
+                    result.put(row, BitSet.valueOf(Arrays.copyOfRange(visited, start, end)));
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Set the visited data.
+     *
+     * @param visitedRows a mapping of row indexes to the visited columns in that
+     *                    row
+     */
+    @JsonSetter(value = "visited")
+    public void setVisited(Map<Integer, BitSet> visitedRows) {
+        Arrays.fill(visited, 0L);
+        Arrays.fill(near, 0L);
+        if (visitedRows == null) {
+            return;
+        }
+        for (Entry<Integer, BitSet> e : visitedRows.entrySet()) {
+            final int row = e.getKey();
+            final BitSet cols = e.getValue();
+            if (cols == null) {
+                continue;
+            }
+            for (int col = cols.nextSetBit(0); col >= 0; col = cols.nextSetBit(col + 1)) {
+                visit(col, row);
+            }
+        }
+    }
+
+    private void ensureCapacity(int col, int row) {
+        final int minRowWords = (col >>> 6) + 1;
+        final int minRows = row + 1;
+        if (minRowWords <= rowWords && minRows <= rows) {
+            return;
+        }
+        final int newRowWords = Math.max(rowWords, minRowWords);
+        final int newRows = Math.max(rows, Math.max(minRows, rows + (rows >> 1)));
+        visited = resize(visited, newRowWords, newRows);
+        near = resize(near, newRowWords, newRows);
+        rowWords = newRowWords;
+        rows = newRows;
+    }
+
+    private long[] resize(long[] bits, int newRowWords, int newRows) {
+        final long[] result = new long[newRowWords * newRows];
+        for (int row = 0; row < rows; row++) {
+            System.arraycopy(bits, row * rowWords, result, row * newRowWords, rowWords);
+        }
+        return result;
+    }
+
+    private static boolean test(long[] bits, int rowWords, int rows, int x, int y) {
+        if (x < 0 || y < 0 || y >= rows || (x >>> 6) >= rowWords) {
+            return false;
+        }
+        return (bits[y * rowWords + (x >>> 6)] & (1L << x)) != 0;
     }
 
     /**
@@ -35,12 +135,28 @@ public class VisitedMap {
      * @param x the x coordinate
      * @param y the y coordinate
      * @return {@code true} if the coordinate was not visited before
+     * @throws IllegalArgumentException if {@code x} or {@code y} is negative
      */
     public boolean visit(int x, int y) {
-        BitSet row = visitedRows.computeIfAbsent(y, BitSet::new);
-        boolean result = row.get(x);
-        row.set(x);
-        return !result;
+        if (x < 0 || y < 0) {
+            throw new IllegalArgumentException("Invalid coordinate [%d,%d]".formatted(x, y));
+        }
+        ensureCapacity(x + 1, y + 1);
+        final int i = y * rowWords + (x >>> 6);
+        final long bit = 1L << x;
+        if ((visited[i] & bit) != 0) {
+            return false;
+        }
+        visited[i] |= bit;
+
+        // update the surrounding "near" coordinates
+        for (int row = Math.max(0, y - 1), maxRow = y + 1; row <= maxRow; row++) {
+            final int rowStart = row * rowWords;
+            for (int col = Math.max(0, x - 1), maxCol = x + 1; col <= maxCol; col++) {
+                near[rowStart + (col >>> 6)] |= 1L << col;
+            }
+        }
+        return true;
     }
 
     /**
@@ -51,8 +167,7 @@ public class VisitedMap {
      * @return {@code true} if the coordinate has been visited before
      */
     public boolean hasVisited(int x, int y) {
-        BitSet row = visitedRows.get(y);
-        return (row != null ? row.get(x) : false);
+        return test(visited, rowWords, rows, x, y);
     }
 
     /**
@@ -63,17 +178,6 @@ public class VisitedMap {
      * @return {@code true} if the coordinate has been visited "near by" before
      */
     public boolean hasVisitedNear(int x, int y) {
-        for (int row = Math.max(0, y - 1), maxRow = y + 1; row <= maxRow; row++) {
-            BitSet visitedRow = visitedRows.get(row);
-            if (visitedRow == null) {
-                continue;
-            }
-            for (int col = Math.max(0, x - 1), maxCol = x + 1; col <= maxCol; col++) {
-                if (visitedRow.get(col)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return test(near, rowWords, rows, x, y);
     }
 }
@@ -0,0 +1,183 @@
+package coding101.tq.util;
+
+import coding101.tq.domain.Player;
+import coding101.tq.domain.PlayerChanges;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Save player changes on a background thread.
+ *
+ * Changes are taken from the player on the calling thread, as an immutable
+ * {@link PlayerChanges} entry, and then written to the save file journal on a
+ * background thread. Saves requested while a write is already queued are
+ * coalesced: every entry queued by the time the write starts is appended in a
+ * single write. Compacting the journal is also done on the background thread,
+ * from the save file and journal alone, so the player is never accessed there.
+ *
+ * If the save file does not exist yet, the first save instead takes a complete
+ * snapshot of the player on the calling thread, which is then written as the
+ * save file. That way the save file includes any state from before the player
+ * started tracking changes.
+ *
+ * Changes taken from the player are no longer tracked by it, so if a write
+ * fails the next save takes a complete snapshot of the player again, rather
+ * than appending to a journal that is missing the failed changes.
+ *
+ * This class is thread-safe.
+ *
+ * @see Persistence#appendChanges(List, Path)
+ */
+public class BackgroundSaver implements AutoCloseable {
+
+    /** The maximum number of seconds {@link #close()} waits for queued saves. */
+    public static final int CLOSE_TIMEOUT_SECS = 30;
+
+    private record Save(PlayerChanges changes, byte[] snapshot, CompletableFuture<Boolean> result) {}
+
+    private final Persistence persistence;
+    private final Path path;
+    private final ExecutorService executor;
+    private final List<Save> queue = new ArrayList<>(4);
+
+    private boolean snapshotNeeded;
+    private long requestCount;
+    private long writeCount;
+
+    /**
+     * Constructor.
+     *
+     * @param persistence the persistence to save with
+     * @param path        the save file path
+     * @throws IllegalArgumentException if any argument is {@code null}
+     */
+    public BackgroundSaver(Persistence persistence, Path path) {
+        super();
+        this.persistence = Objects.requireNonNull(persistence);
+        this.path = Objects.requireNonNull(path);
+        this.executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().daemon().name("TQ Save").factory());
+        this.snapshotNeeded = !Files.exists(path);
+    }
+
+    /**
+     * Save the changes made to a player since they were last saved.
+     *
+     * @param player the player to save the changes of, which must be tracking
+     *               changes
+     * @return a future that completes once the changes have been saved, with
+     *         {@code true} if the journal was also compacted, or a complete
+     *         snapshot of the player saved
+     * @throws IllegalStateException if the player is not tracking changes
+     * @see Player#takeChanges()
+     */
+    public CompletableFuture<Boolean> save(Player player) {
+        final Save save;
+        synchronized (this) {
+            // take the changes while holding the lock, so they are queued in order
+            byte[] snapshot = null;
+            if (snapshotNeeded) {
+                try {
+                    snapshot = persistence.snapshot(player);
+                } catch (IOException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+                snapshotNeeded = false;
+            }
+            save = new Save(player.takeChanges(), snapshot, new CompletableFuture<>());
+            requestCount++;
+            queue.add(save);
+            if (queue.size() == 1) {
+                // no write queued yet; any further saves will join this one
+                executor.execute(this::write);
+            }
+        }
+        return save.result();
+    }
+
+    private void write() {
+        final List<Save> saves;
+        synchronized (this) {
+            saves = List.copyOf(queue);
+            queue.clear();
+            writeCount++;
+        }
+        try {
+            // any snapshot already includes the changes queued before it
+            int first = 0;
+            boolean compacted = false;
+            for (int i = saves.size() - 1; i >= 0; i--) {
+                if (saves.get(i).snapshot() != null) {
+                    persistence.saveSnapshot(saves.get(i).snapshot(), path);
+                    first = i + 1;
+                    compacted = true;
+                    break;
+                }
+            }
+            if (first < saves.size()) {
+                List<PlayerChanges> changes =
+                        saves.subList(first, saves.size()).stream().map(Save::changes).toList();
+                persistence.appendChanges(changes, Persistence.journalPath(path));
+            }
+            if (persistence.journalCompactionNeeded(path)) {
+                persistence.compactJournal(path);
+                compacted = true;
+            }
+            for (Save save : saves) {
+                save.result().complete(compacted);
+            }
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                // the failed changes are gone from the player, so save everything next time
+                snapshotNeeded = true;
+            }
+            for (Save save : saves) {
+                save.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Get the number of saves requested.
+     *
+     * @return the request count
+     */
+    public synchronized long requestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Get the number of writes performed, which can be less than the number of
+     * saves requested when saves are coalesced.
+     *
+     * @return the write count
+     */
+    public synchronized long writeCount() {
+        return writeCount;
+    }
+
+    /**
+     * Stop the background thread, after waiting for any queued saves to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT_SECS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BackgroundSaver{requests=" + requestCount + ", writes=" + writeCount + "}";
+    }
+}
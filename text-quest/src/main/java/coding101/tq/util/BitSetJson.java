@@ -12,19 +12,44 @@ import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.BitSet;
 import java.util.List;
 
 /**
  * JSON handling for the {@link BitSet} class.
+ *
+ * A bit set is serialized as an array of its 64-bit words, as returned by
+ * {@link BitSet#toLongArray()}. A compact run-length encoding can optionally
+ * be used instead, which is serialized as a Base64 string. The encoding is a
+ * sequence of runs of identical words, each run encoded as an unsigned
+ * LEB128 variable-length repeat count followed by the 8-byte little-endian
+ * word. Sets with long runs of empty or full words, such as sparse or fully
+ * visited map rows, encode far smaller than the word array. Both forms are
+ * always accepted when deserializing, but the run-length encoding is limited to
+ * {@link #MAX_DECODED_WORDS} words, so a few corrupt bytes cannot exhaust memory.
  */
 public class BitSetJson {
 
+    /**
+     * The maximum number of words decoded from the run-length encoding, enough for
+     * a map row over four million columns wide.
+     */
+    public static final int MAX_DECODED_WORDS = 1 << 16;
+
     /** A default value serializer instance. */
     public static final JsonSerializer<BitSet> VALUE_SERIALIZER = new BitSetValueSerializer();
 
+    /**
+     * A value serializer instance that uses the run-length encoding when that is
+     * smaller than the word array.
+     */
+    public static final JsonSerializer<BitSet> COMPACT_VALUE_SERIALIZER = new BitSetValueSerializer(true);
+
     /** A default value deserializer instance. */
     public static final JsonDeserializer<BitSet> VALUE_DESERIALIZER = new BitSetValueDeserializer();
 
@@ -44,26 +69,137 @@ public class BitSetJson {
      * @return the module
      */
     public static SimpleModule createBitSetModule() {
+        return createBitSetModule(false);
+    }
+
+    /**
+     * Get a JSON module for handling BitSet values.
+     *
+     * @param compact {@code true} to serialize with the run-length encoding when
+     *                that is smaller than the word array
+     * @return the module
+     */
+    public static SimpleModule createBitSetModule(boolean compact) {
         SimpleModule module = new SimpleModule("BitSets");
 
-        module.addSerializer(BitSet.class, BitSetJson.VALUE_SERIALIZER);
+        module.addSerializer(BitSet.class, compact ? BitSetJson.COMPACT_VALUE_SERIALIZER : BitSetJson.VALUE_SERIALIZER);
         module.addDeserializer(BitSet.class, BitSetJson.VALUE_DESERIALIZER);
 
         return module;
     }
 
     /**
-     * Serialize a {@link BitSet} as a string {@code x,y} string value.
+     * Encode words with the run-length encoding.
+     *
+     * @param words the words to encode
+     * @return the encoded bytes
+     */
+    public static byte[] encodeRuns(long[] words) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16);
+        for (int i = 0; i < words.length; ) {
+            final long word = words[i];
+            int end = i + 1;
+            while (end < words.length && words[end] == word) {
+                end++;
+            }
+            for (int count = end - i; ; count >>>= 7) {
+                if ((count & ~0x7F) == 0) {
+                    out.write(count);
+                    break;
+                }
+                out.write((count & 0x7F) | 0x80);
+            }
+            for (int b = 0; b < 64; b += 8) {
+                out.write((int) (word >>> b));
+            }
+            i = end;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode words from the run-length encoding.
+     *
+     * @param data the encoded bytes
+     * @return the decoded words
+     * @throws IllegalArgumentException if the data is not valid, or decodes to more
+     *                                  than {@link #MAX_DECODED_WORDS} words
+     */
+    public static long[] decodeRuns(byte[] data) {
+        return decodeRuns(data, MAX_DECODED_WORDS);
+    }
+
+    /**
+     * Decode words from the run-length encoding.
+     *
+     * @param data     the encoded bytes
+     * @param maxWords the maximum number of words to decode
+     * @return the decoded words
+     * @throws IllegalArgumentException if the data is not valid, or decodes to more
+     *                                  than {@code maxWords} words
+     */
+    public static long[] decodeRuns(byte[] data, int maxWords) {
+        long[] words = new long[8];
+        int len = 0;
+        int pos = 0;
+        while (pos < data.length) {
+            int count = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (pos >= data.length || shift > 28) {
+                    throw new IllegalArgumentException("Invalid run count at byte %d.".formatted(pos));
+                }
+                final int b = data[pos++];
+                count |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            if (count < 1 || pos + 8 > data.length) {
+                throw new IllegalArgumentException("Invalid run at byte %d.".formatted(pos));
+            }
+            if (count > maxWords - len) {
+                throw new IllegalArgumentException(
+                        "Run at byte %d decodes to more than %d words.".formatted(pos, maxWords));
+            }
+            long word = 0;
+            for (int b = 0; b < 64; b += 8) {
+                word |= (data[pos++] & 0xFFL) << b;
+            }
+            if (len + count > words.length) {
+                words = Arrays.copyOf(words, Math.min(Math.max(len + count, words.length << 1), maxWords));
+            }
+            Arrays.fill(words, len, len + count, word);
+            len += count;
+        }
+        return (len == words.length ? words : Arrays.copyOf(words, len));
+    }
+
+    /**
+     * Serialize a {@link BitSet} as an array of words, or optionally a run-length
+     * encoded Base64 string.
      */
     public static final class BitSetValueSerializer extends StdSerializer<BitSet> {
 
         private static final long serialVersionUID = -6510311759744722960L;
 
+        private final boolean compact;
+
         /**
          * Constructor.
          */
         public BitSetValueSerializer() {
+            this(false);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param compact {@code true} to use the run-length encoding when that is
+         *                smaller than the word array
+         */
+        public BitSetValueSerializer(boolean compact) {
             super(BitSet.class);
+            this.compact = compact;
         }
 
         @Override
@@ -71,14 +207,31 @@ public class BitSetJson {
             long[] data = value != null ? value.toLongArray() : null;
             if (data == null) {
                 gen.writeNull();
-            } else {
-                gen.writeArray(data, 0, data.length);
+                return;
             }
+            if (compact && data.length > 1) {
+                String encoded = Base64.getEncoder().withoutPadding().encodeToString(encodeRuns(data));
+                if (encoded.length() + 2 < arrayLength(data)) {
+                    gen.writeString(encoded);
+                    return;
+                }
+            }
+            gen.writeArray(data, 0, data.length);
+        }
+
+        private static int arrayLength(long[] data) {
+            // the length of the compact JSON array form: the brackets, commas, and digits
+            int len = 1 + data.length;
+            for (long word : data) {
+                len += Long.toString(word).length();
+            }
+            return len;
         }
     }
 
     /**
-     * Deserialize a {@link BitSet} from a string {@code x,y} field name value.
+     * Deserialize a {@link BitSet} from an array of words, or a run-length encoded
+     * Base64 string.
      */
     public static final class BitSetValueDeserializer extends StdDeserializer<BitSet> {
 
@@ -95,15 +248,26 @@ public class BitSetJson {
         public BitSet deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JacksonException {
 
             if (p.currentToken() == JsonToken.START_ARRAY) {
-                List<Long> data = new ArrayList<>(32);
+                long[] data = new long[8];
+                int len = 0;
                 while (p.nextToken() != JsonToken.END_ARRAY) {
                     if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
-                        data.add(p.getLongValue());
+                        if (len == data.length) {
+                            data = Arrays.copyOf(data, len << 1);
+                        }
+                        data[len++] = p.getLongValue();
                     }
                 }
-                return BitSet.valueOf(data.stream().mapToLong(Long::longValue).toArray());
+                // BitSet.valueOf() copies the words, so no need to trim the array first
+                return BitSet.valueOf(LongBuffer.wrap(data, 0, len));
+            } else if (p.currentToken() == JsonToken.VALUE_STRING) {
+                try {
+                    return BitSet.valueOf(decodeRuns(Base64.getDecoder().decode(p.getText())));
+                } catch (IllegalArgumentException e) {
+                    return ctxt.reportInputMismatch(this, "Invalid encoded bit set: %s", e.getMessage());
+                }
             }
-            return ctxt.reportInputMismatch(this, "Expected an array.");
+            return ctxt.reportInputMismatch(this, "Expected an array or string.");
         }
     }
 }
@@ -54,15 +54,39 @@ public final class CommandLineGameConfiguration {
     /** The main map name CLI option. */
     public static final char OPT_MAIN_MAP_NAME = 'm';
 
+    /** The lazy map loading tile cache size CLI option. */
+    public static final char OPT_LAZY_MAP = 'L';
+
+    /** The map loading thread count CLI option. */
+    public static final char OPT_MAP_THREADS = 'T';
+
     /** The game save file path CLI option. */
     public static final char OPT_SAVE_PATH = 'f';
 
+    /** The binary save file format flag CLI option. */
+    public static final char OPT_BINARY_SAVE = 'b';
+
+    /** The input recording file path CLI option. */
+    public static final char OPT_RECORD = 'R';
+
+    /** The input replay file path CLI option. */
+    public static final char OPT_REPLAY = 'p';
+
+    /** The watch replay flag CLI option. */
+    public static final char OPT_WATCH_REPLAY = 'w';
+
+    /** The game server port CLI option. */
+    public static final char OPT_SERVER = 'S';
+
     /** The "reveal map" flag CLI option. */
     public static final char OPT_REVEAL_MAP = 'r';
 
     /** The GUI flag option. */
     public static final char OPT_GUI = 'g';
 
+    /** The scrolling map flag option. */
+    public static final char OPT_SCROLL = 's';
+
     /** The experience points option. */
     public static final char OPT_XP = 'x';
 
@@ -147,11 +171,44 @@ public final class CommandLineGameConfiguration {
                 .hasArg()
                 .desc("the main map name to load")
                 .build());
+        options.addOption(Option.builder(String.valueOf(OPT_LAZY_MAP))
+                .longOpt("lazy-map")
+                .hasArg()
+                .desc("load main map tiles on demand, keeping at most this many tiles in memory")
+                .build());
+        options.addOption(Option.builder(String.valueOf(OPT_MAP_THREADS))
+                .longOpt("map-threads")
+                .hasArg()
+                .desc("the number of threads to load map tiles with; defaults to the number of processors")
+                .build());
         options.addOption(Option.builder(String.valueOf(OPT_SAVE_PATH))
                 .longOpt("save-file")
                 .hasArg()
                 .desc("the save file path to use")
                 .build());
+        options.addOption(Option.builder(String.valueOf(OPT_BINARY_SAVE))
+                .longOpt("binary-save")
+                .desc("save the game in the compact binary format")
+                .build());
+        options.addOption(Option.builder(String.valueOf(OPT_RECORD))
+                .longOpt("record")
+                .hasArg()
+                .desc("record the game input to this file, to replay later")
+                .build());
+        options.addOption(Option.builder(String.valueOf(OPT_REPLAY))
+                .longOpt("replay")
+                .hasArg()
+                .desc("replay a recorded game input file as fast as possible, without displaying the game")
+                .build());
+        options.addOption(Option.builder(String.valueOf(OPT_WATCH_REPLAY))
+                .longOpt("watch")
+                .desc("display the game while replaying with --replay")
+                .build());
+        options.addOption(Option.builder(String.valueOf(OPT_SERVER))
+                .longOpt("server")
+                .hasArg()
+                .desc("host games for many players over telnet on this port, instead of playing")
+                .build());
         options.addOption(Option.builder(String.valueOf(OPT_REVEAL_MAP))
                 .longOpt("reveal-map")
                 .desc("make the map completely visible")
@@ -160,6 +217,10 @@ public final class CommandLineGameConfiguration {
                 .longOpt("gui")
                 .desc("use the image texture GUI renderer")
                 .build());
+        options.addOption(Option.builder(String.valueOf(OPT_SCROLL))
+                .longOpt("scroll")
+                .desc("keep the player centred, scrolling the map as they move")
+                .build());
         return options;
     }
 
@@ -179,8 +240,37 @@ public final class CommandLineGameConfiguration {
         if (cl.hasOption(OPT_MAIN_MAP_NAME)) {
             mapName = cl.getOptionValue(OPT_MAIN_MAP_NAME);
         }
+        if (cl.hasOption(OPT_LAZY_MAP)) {
+            int maxCachedTiles = 0;
+            try {
+                maxCachedTiles = Integer.parseInt(cl.getOptionValue(OPT_LAZY_MAP));
+                if (maxCachedTiles < 1) {
+                    throw new IllegalArgumentException();
+                }
+            } catch (Exception e) {
+                printErrorAndExit("The --lazy-map argument must be a number 1 or more.");
+            }
+            try {
+                return TerrainMapBuilder.parsePagedResources(
+                        "%s/%s".formatted(mapPath, mapName), mapName, maxCachedTiles);
+            } catch (IllegalArgumentException e) {
+                printErrorAndExit(e.getMessage());
+                return null;
+            }
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (cl.hasOption(OPT_MAP_THREADS)) {
+            try {
+                threads = Integer.parseInt(cl.getOptionValue(OPT_MAP_THREADS));
+                if (threads < 1) {
+                    throw new IllegalArgumentException();
+                }
+            } catch (Exception e) {
+                printErrorAndExit("The --map-threads argument must be a number 1 or more.");
+            }
+        }
         try {
-            return TerrainMapBuilder.parseResources("%s/%s".formatted(mapPath, mapName))
+            return TerrainMapBuilder.parseResources("%s/%s".formatted(mapPath, mapName), threads)
                     .build(mapName);
         } catch (IllegalArgumentException e) {
             printErrorAndExit(e.getMessage());
@@ -205,9 +295,7 @@ public final class CommandLineGameConfiguration {
         if (cl.hasOption(OPT_COLORS_NAME)) {
             colorScheme = cl.getOptionValue(OPT_COLORS_NAME);
         }
-        InputStream in = TextQuest.class
-                .getClassLoader()
-                .getResourceAsStream("%s/%s.json".formatted(colorSchemeDir, colorScheme));
+        InputStream in = openResource(colorSchemeDir, colorScheme);
         try {
             if (in == null) {
                 // try as file path
@@ -247,8 +335,7 @@ public final class CommandLineGameConfiguration {
         if (cl.hasOption(OPT_COLORS_NAME)) {
             itemsName = cl.getOptionValue(OPT_ITEMS_NAME);
         }
-        InputStream in =
-                TextQuest.class.getClassLoader().getResourceAsStream("%s/%s.json".formatted(itemsDir, itemsName));
+        InputStream in = openResource(itemsDir, itemsName);
         try {
             if (in == null) {
                 // try as file path
@@ -271,6 +358,22 @@ public final class CommandLineGameConfiguration {
         return null;
     }
 
+    /**
+     * Open a JSON classpath resource.
+     *
+     * @param dir  the resource directory
+     * @param name the resource name, without the {@code .json} extension
+     * @return the resource stream, or {@code null} if the resource does not exist
+     */
+    private static InputStream openResource(String dir, String name) {
+        final String resource = "%s/%s.json".formatted(dir, name);
+        final ResourceIndex index = ResourceIndex.defaultIndex();
+        if (index.covers(dir) && !index.contains(resource)) {
+            return null;
+        }
+        return TextQuest.class.getClassLoader().getResourceAsStream(resource);
+    }
+
     /**
      * Parse the command line options into a {@link GameConfiguration}.
      *
@@ -349,6 +452,10 @@ public final class CommandLineGameConfiguration {
             config = config.withGui(true);
         }
 
+        if (cl.hasOption(OPT_SCROLL)) {
+            config = config.withScroll(true);
+        }
+
         return config;
     }
 }
@@ -14,6 +14,7 @@ import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import java.io.IOException;
+import java.nio.CharBuffer;
 import java.util.TreeMap;
 
 /**
@@ -138,8 +139,8 @@ public class CoordinateJson {
 
         @Override
         public Coordinate deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JacksonException {
-            String s = p.getText();
-            return Coordinate.forKey(s);
+            // parse the parser's own text buffer, rather than allocating a string
+            return Coordinate.forKey(CharBuffer.wrap(p.getTextCharacters(), p.getTextOffset(), p.getTextLength()));
         }
     }
 }
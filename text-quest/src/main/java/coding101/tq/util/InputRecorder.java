@@ -0,0 +1,136 @@
+package coding101.tq.util;
+
+import coding101.tq.GameConfiguration;
+import coding101.tq.domain.Player;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.input.KeyType;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Record the player input of a game, so the game can be replayed later.
+ *
+ * A recording is a text file of JSON lines. The first line is a header with
+ * the random number generator seed, the terminal size, the game configuration,
+ * and the player at the start of the recording. Each following line is one key
+ * stroke, in the order the game read them. Each key stroke is written as soon
+ * as it is recorded, so an interrupted game still produces a usable recording.
+ *
+ * @see InputReplay
+ */
+public class InputRecorder implements AutoCloseable {
+
+    /**
+     * The recording header.
+     *
+     * @param seed    the random number generator seed
+     * @param columns the terminal column count
+     * @param rows    the terminal row count
+     * @param config  the game configuration
+     * @param player  the player at the start of the recording
+     */
+    record Header(long seed, int columns, int rows, GameConfiguration config, Player player) {}
+
+    /**
+     * A recorded key stroke.
+     *
+     * @param type      the key type
+     * @param character the character, for {@link KeyType#Character} key types
+     * @param ctrl      the Ctrl key down flag
+     * @param alt       the Alt key down flag
+     * @param shift     the Shift key down flag
+     */
+    @JsonInclude(Include.NON_DEFAULT)
+    record Key(KeyType type, Character character, boolean ctrl, boolean alt, boolean shift) {
+
+        static Key of(KeyStroke keyStroke) {
+            return new Key(
+                    keyStroke.getKeyType(),
+                    keyStroke.getCharacter(),
+                    keyStroke.isCtrlDown(),
+                    keyStroke.isAltDown(),
+                    keyStroke.isShiftDown());
+        }
+
+        KeyStroke toKeyStroke() {
+            if (type == KeyType.Character) {
+                return new KeyStroke(character, ctrl, alt, shift);
+            }
+            return new KeyStroke(type, ctrl, alt, shift);
+        }
+    }
+
+    private final ObjectMapper mapper;
+    private final BufferedWriter out;
+    private long count;
+
+    /**
+     * Constructor.
+     *
+     * The recording header is written immediately, so the player must be in
+     * the state the recording starts from, and configured with the game
+     * configuration.
+     *
+     * @param mapper the JSON mapper
+     * @param path   the recording file path to write
+     * @param seed   the random number generator seed of the game
+     * @param size   the terminal size
+     * @param player the player
+     * @throws IllegalArgumentException if any argument is {@code null}
+     * @throws IOException              if any IO error occurs
+     */
+    public InputRecorder(ObjectMapper mapper, Path path, long seed, TerminalSize size, Player player)
+            throws IOException {
+        super();
+        this.mapper = Objects.requireNonNull(mapper);
+        this.out = Files.newBufferedWriter(Objects.requireNonNull(path));
+        try {
+            write(new Header(seed, size.getColumns(), size.getRows(), player.config(), player));
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    private void write(Object entry) throws IOException {
+        out.write(mapper.writeValueAsString(entry));
+        out.newLine();
+        out.flush();
+    }
+
+    /**
+     * Record a key stroke.
+     *
+     * @param keyStroke the key stroke to record; {@code null} is ignored
+     * @return the key stroke
+     * @throws IOException if any IO error occurs
+     */
+    public KeyStroke record(KeyStroke keyStroke) throws IOException {
+        if (keyStroke != null) {
+            write(Key.of(keyStroke));
+            count++;
+        }
+        return keyStroke;
+    }
+
+    /**
+     * Get the number of key strokes recorded.
+     *
+     * @return the count
+     */
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
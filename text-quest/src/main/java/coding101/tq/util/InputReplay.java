@@ -0,0 +1,161 @@
+package coding101.tq.util;
+
+import coding101.tq.GameConfiguration;
+import coding101.tq.domain.Player;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.input.KeyType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Replay the player input of a game recorded by {@link InputRecorder}.
+ *
+ * The entire recording is loaded up front, so reading the recording does not
+ * add to the cost of the game while it is replayed. Once all the recorded key
+ * strokes have been read, {@link KeyType#EOF} key strokes are returned.
+ *
+ * @see InputRecorder
+ */
+public class InputReplay {
+
+    private static final KeyStroke EOF = new KeyStroke(KeyType.EOF);
+
+    private final long seed;
+    private final TerminalSize size;
+    private final GameConfiguration config;
+    private final Player player;
+    private final KeyStroke[] keys;
+    private int position;
+
+    /**
+     * Constructor.
+     *
+     * @param seed   the random number generator seed of the game
+     * @param size   the terminal size
+     * @param config the game configuration
+     * @param player the player at the start of the recording
+     * @param keys   the key strokes to replay
+     * @throws IllegalArgumentException if any argument is {@code null}
+     */
+    public InputReplay(
+            long seed, TerminalSize size, GameConfiguration config, Player player, List<KeyStroke> keys) {
+        super();
+        this.seed = seed;
+        this.size = Objects.requireNonNull(size);
+        this.config = Objects.requireNonNull(config);
+        this.player = Objects.requireNonNull(player);
+        player.configure(config);
+        this.keys = keys.toArray(KeyStroke[]::new);
+    }
+
+    /**
+     * Load a recording.
+     *
+     * @param mapper the JSON mapper
+     * @param path   the recording file path
+     * @return the replay
+     * @throws IllegalArgumentException if the recording has no valid header
+     * @throws IOException              if any IO error occurs
+     */
+    public static InputReplay load(ObjectMapper mapper, Path path) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(path)) {
+            final String headerLine = in.readLine();
+            if (headerLine == null || headerLine.isBlank()) {
+                throw new IllegalArgumentException("The recording [%s] has no header.".formatted(path));
+            }
+            final InputRecorder.Header header = mapper.readValue(headerLine, InputRecorder.Header.class);
+            if (header.config() == null || header.player() == null) {
+                throw new IllegalArgumentException(
+                        "The recording [%s] header has no configuration or player.".formatted(path));
+            }
+            final List<KeyStroke> keys = new ArrayList<>(1024);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) {
+                    keys.add(mapper.readValue(line, InputRecorder.Key.class).toKeyStroke());
+                }
+            }
+            return new InputReplay(
+                    header.seed(),
+                    new TerminalSize(header.columns(), header.rows()),
+                    header.config(),
+                    header.player(),
+                    keys);
+        }
+    }
+
+    /**
+     * Get the random number generator seed of the game.
+     *
+     * @return the seed
+     */
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * Get the terminal size the game was recorded with.
+     *
+     * @return the size
+     */
+    public TerminalSize size() {
+        return size;
+    }
+
+    /**
+     * Get the game configuration the game was recorded with.
+     *
+     * @return the configuration
+     */
+    public GameConfiguration config() {
+        return config;
+    }
+
+    /**
+     * Get the player at the start of the recording, configured with the
+     * recorded game configuration.
+     *
+     * @return the player
+     */
+    public Player player() {
+        return player;
+    }
+
+    /**
+     * Get the number of recorded key strokes.
+     *
+     * @return the count
+     */
+    public int count() {
+        return keys.length;
+    }
+
+    /**
+     * Get the number of key strokes replayed so far.
+     *
+     * @return the position
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Get the next recorded key stroke.
+     *
+     * @return the key stroke, or a {@link KeyType#EOF} key stroke once all have
+     *         been replayed
+     */
+    public KeyStroke next() {
+        if (position < keys.length) {
+            return keys[position++];
+        }
+        return EOF;
+    }
+}
@@ -1,30 +1,89 @@
 package coding101.tq.util;
 
 import coding101.tq.domain.Player;
+import coding101.tq.domain.PlayerChanges;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileConstants;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Game state persistence.
+ *
+ * A player is saved to a save file. Changes made to the player after that
+ * can be saved by appending them to a journal next to the save file, one JSON
+ * entry per line, which is much cheaper than saving the entire player again.
+ * Loading a player loads the save file and then applies the changes from the
+ * journal. Once the journal grows large enough, the next save of changes
+ * compacts it by saving the entire player to the save file and deleting the
+ * journal.
+ *
+ * Save files can be written either as pretty-printed JSON or in the compact
+ * binary <a href="https://github.com/FasterXML/smile-format-specification">Smile</a>
+ * format, which is the same data model as JSON but much smaller and faster to
+ * parse. Loading a save file detects the format from the file header, so either
+ * format can always be loaded. The journal is always JSON, as its entries are
+ * small and are separated by lines.
  */
 public class Persistence {
 
+    /** The journal size, in bytes, beyond which the journal is compacted. */
+    public static final long JOURNAL_COMPACT_SIZE = 64 * 1024;
+
+    /** The file name suffix added to a save file path to form its journal path. */
+    public static final String JOURNAL_SUFFIX = ".journal";
+
     private final ObjectMapper mapper;
+    private final ObjectMapper binaryMapper;
+    private final boolean binary;
 
     /**
      * Constructor.
      *
+     * Save files will be written as JSON.
+     *
      * @param mapper the mapper to use for persistence to JSON files
      */
     public Persistence(ObjectMapper mapper) {
+        this(mapper, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param mapper the mapper to use for persistence to JSON files; a copy of this
+     *               mapper, with the same configuration and modules, is used for
+     *               the binary format
+     * @param binary {@code true} to write save files in the binary format,
+     *               {@code false} for JSON
+     */
+    public Persistence(ObjectMapper mapper, boolean binary) {
         super();
         this.mapper = Objects.requireNonNull(mapper);
+        this.binaryMapper = mapper.copyWith(new SmileFactory());
+        this.binary = binary;
+    }
+
+    /**
+     * Test if save files are written in the binary format.
+     *
+     * @return {@code true} if save files are written in the binary format
+     */
+    public boolean isBinary() {
+        return binary;
     }
 
     /**
@@ -35,14 +94,128 @@ public class Persistence {
      * @throws IOException if any IO error occurs
      */
     public void savePlayer(Player player, Path path) throws IOException {
+        saveSnapshot(snapshot(player), path);
+    }
+
+    /**
+     * Take a snapshot of a player, as the content of a save file.
+     *
+     * The snapshot does not share any state with the player, so it can be saved
+     * later, on a different thread, via {@link #saveSnapshot(byte[], Path)}.
+     *
+     * @param player the player to take a snapshot of
+     * @return the snapshot
+     * @throws IOException if any IO error occurs
+     */
+    public byte[] snapshot(Player player) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        savePlayer(player, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Save a player snapshot.
+     *
+     * @param snapshot the snapshot to save, from {@link #snapshot(Player)}
+     * @param path     the path to save the snapshot to
+     * @throws IOException if any IO error occurs
+     */
+    public void saveSnapshot(byte[] snapshot, Path path) throws IOException {
         // write to temp file, then move, to prevent broken data on failed save
         Path tmp = Files.createTempFile("save-", ".tqsave");
-        try (OutputStream out = Files.newOutputStream(tmp)) {
-            savePlayer(player, out);
+        try {
+            Files.write(tmp, snapshot);
             Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
         } finally {
             Files.deleteIfExists(tmp);
         }
+
+        // the save file now includes everything in the journal
+        Files.deleteIfExists(journalPath(path));
+    }
+
+    /**
+     * Append entries to a journal.
+     *
+     * @param changes the changes to append, in order
+     * @param journal the journal path
+     * @throws IOException if any IO error occurs
+     */
+    public void appendChanges(List<PlayerChanges> changes, Path journal) throws IOException {
+        // append all the lines in a single write
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(256 * changes.size() + 1);
+        if (!endsWithNewLine(journal)) {
+            // never append onto an incomplete entry, so the new entries can be read
+            buf.write('\n');
+        }
+        for (PlayerChanges entry : changes) {
+            buf.write(mapper.writeValueAsBytes(entry));
+            buf.write('\n');
+        }
+        Files.write(journal, buf.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static boolean endsWithNewLine(Path journal) throws IOException {
+        if (!Files.exists(journal)) {
+            return true;
+        }
+        try (SeekableByteChannel ch = Files.newByteChannel(journal, StandardOpenOption.READ)) {
+            final long size = ch.size();
+            if (size < 1) {
+                return true;
+            }
+            final ByteBuffer last = ByteBuffer.allocate(1);
+            ch.position(size - 1);
+            ch.read(last);
+            return last.get(0) == '\n';
+        }
+    }
+
+    /**
+     * Test if the journal of a save file should be compacted.
+     *
+     * @param path the save file path
+     * @return {@code true} if the save file does not exist yet, or its journal has
+     *         grown larger than {@link #JOURNAL_COMPACT_SIZE}
+     * @throws IOException if any IO error occurs
+     */
+    public boolean journalCompactionNeeded(Path path) throws IOException {
+        final Path journal = journalPath(path);
+        return !Files.exists(path) || (Files.exists(journal) && Files.size(journal) > JOURNAL_COMPACT_SIZE);
+    }
+
+    /**
+     * Compact the journal of a save file.
+     *
+     * The save file is loaded, the journal changes applied, and the resulting
+     * player saved back to the save file, deleting the journal. If the save file
+     * does not exist yet, the journal changes are applied to a new player.
+     *
+     * @param path the save file path
+     * @throws IOException if any IO error occurs
+     */
+    public void compactJournal(Path path) throws IOException {
+        Player player;
+        if (Files.exists(path)) {
+            player = loadPlayer(path);
+        } else {
+            player = new Player();
+            final Path journal = journalPath(path);
+            if (Files.exists(journal)) {
+                replayChanges(player, journal);
+            }
+        }
+        savePlayer(player, path);
+    }
+
+    /**
+     * Get the journal path for a save file.
+     *
+     * @param path the save file path
+     * @return the journal path
+     */
+    public static Path journalPath(Path path) {
+        return path.resolveSibling(path.getFileName() + JOURNAL_SUFFIX);
     }
 
     /**
@@ -53,7 +226,11 @@ public class Persistence {
      * @throws IOException if any IO error occurs
      */
     public void savePlayer(Player player, OutputStream out) throws IOException {
-        mapper.writerWithDefaultPrettyPrinter().writeValue(out, player);
+        if (binary) {
+            binaryMapper.writeValue(out, player);
+        } else {
+            mapper.writerWithDefaultPrettyPrinter().writeValue(out, player);
+        }
     }
 
     /**
@@ -64,19 +241,92 @@ public class Persistence {
      * @throws IOException if any IO error occurs
      */
     public Player loadPlayer(Path path) throws IOException {
+        Player player;
         try (InputStream in = Files.newInputStream(path)) {
-            return loadPlayer(in);
+            player = loadPlayer(in);
+        }
+        final Path journal = journalPath(path);
+        if (Files.exists(journal)) {
+            replayChanges(player, journal);
         }
+        return player;
     }
 
     /**
-     * Load a player.
+     * Apply all the changes in a journal to a player.
+     *
+     * Should the journal end with an incomplete entry, for example because the
+     * game was interrupted while saving, the incomplete entry is ignored and
+     * truncated from the journal, so that changes saved later are appended after
+     * the last complete entry. Any incomplete entry followed by complete entries
+     * is skipped.
+     *
+     * @param player  the player to apply the changes to
+     * @param journal the journal path
+     * @return the number of entries applied
+     * @throws IOException if any IO error occurs
+     */
+    public int replayChanges(Player player, Path journal) throws IOException {
+        final byte[] data = Files.readAllBytes(journal);
+        int count = 0;
+        int start = 0;
+        int complete = 0; // the end of the last complete entry
+        while (start < data.length) {
+            int end = start;
+            while (end < data.length && data[end] != '\n') {
+                end++;
+            }
+            final int next = Math.min(end + 1, data.length);
+            if (isBlank(data, start, end)) {
+                complete = next;
+            } else {
+                try {
+                    player.apply(mapper.readValue(data, start, end - start, PlayerChanges.class));
+                    count++;
+                    complete = next;
+                } catch (JsonProcessingException e) {
+                    // skip the incomplete entry
+                }
+            }
+            start = next;
+        }
+        if (complete < data.length) {
+            try (SeekableByteChannel ch = Files.newByteChannel(journal, StandardOpenOption.WRITE)) {
+                ch.truncate(complete);
+            }
+        }
+        return count;
+    }
+
+    private static boolean isBlank(byte[] data, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(data[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Load a player, in either the JSON or binary format.
      *
      * @param in the stream to load from
      * @return the player
      * @throws IOException if any IO error occurs
      */
     public Player loadPlayer(InputStream in) throws IOException {
-        return mapper.readValue(in, Player.class);
+        final InputStream buf = (in.markSupported() ? in : new BufferedInputStream(in));
+        return (isBinaryHeader(buf) ? binaryMapper : mapper).readValue(buf, Player.class);
+    }
+
+    private static boolean isBinaryHeader(InputStream in) throws IOException {
+        in.mark(3);
+        try {
+            return in.read() == (SmileConstants.HEADER_BYTE_1 & 0xFF)
+                    && in.read() == (SmileConstants.HEADER_BYTE_2 & 0xFF)
+                    && in.read() == (SmileConstants.HEADER_BYTE_3 & 0xFF);
+        } finally {
+            in.reset();
+        }
     }
 }
@@ -0,0 +1,245 @@
+package coding101.tq.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ScanResult;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An index of the game classpath resources, grouped by directory.
+ *
+ * The game resource directories are scanned once, after which finding the
+ * resources within any directory is a simple lookup. The index can also be
+ * written to a manifest resource at build time, in which case the classpath
+ * does not need to be scanned at all.
+ */
+public final class ResourceIndex {
+
+    /** The resource directories indexed by default. */
+    public static final List<String> DEFAULT_ROOTS =
+            List.of("META-INF/tqmaps", "META-INF/tqitems", "META-INF/tqcolors");
+
+    /** The classpath resource name of the index manifest. */
+    public static final String MANIFEST_RESOURCE = "META-INF/tqresources.idx";
+
+    // manifest line prefix for an indexed root directory
+    private static final String MANIFEST_ROOT_PREFIX = "#root ";
+
+    private final Set<String> roots;
+    private final Set<String> resources;
+    private final Map<String, List<String>> directories;
+
+    /**
+     * Constructor.
+     *
+     * @param roots     the indexed root directories
+     * @param resources the resource paths within the root directories
+     */
+    public ResourceIndex(Collection<String> roots, Collection<String> resources) {
+        super();
+        this.roots = Collections.unmodifiableSet(new LinkedHashSet<>(roots));
+        this.resources = Set.copyOf(resources);
+        Map<String, List<String>> dirs = new HashMap<>(64);
+        for (String resource : new TreeSet<>(resources)) {
+            dirs.computeIfAbsent(parent(resource), k -> new ArrayList<>(8)).add(resource);
+        }
+        for (Map.Entry<String, List<String>> e : dirs.entrySet()) {
+            e.setValue(Collections.unmodifiableList(e.getValue()));
+        }
+        this.directories = dirs;
+    }
+
+    private static final class DefaultIndexHolder {
+        private static final ResourceIndex INDEX = loadDefault();
+    }
+
+    /**
+     * Get the default index, of the {@link #DEFAULT_ROOTS} directories.
+     *
+     * The index is read from the {@link #MANIFEST_RESOURCE} resource if available,
+     * otherwise the classpath is scanned. This happens only once.
+     *
+     * @return the index
+     */
+    public static ResourceIndex defaultIndex() {
+        return DefaultIndexHolder.INDEX;
+    }
+
+    private static ResourceIndex loadDefault() {
+        try (InputStream in = ResourceIndex.class.getClassLoader().getResourceAsStream(MANIFEST_RESOURCE)) {
+            if (in != null) {
+                return read(in);
+            }
+        } catch (IOException e) {
+            // ignore and scan instead
+        }
+        return scan(DEFAULT_ROOTS);
+    }
+
+    /**
+     * Scan the classpath for all resources within a set of directories.
+     *
+     * @param roots the directories to scan, including all sub-directories
+     * @return the index
+     */
+    public static ResourceIndex scan(Collection<String> roots) {
+        try (ScanResult scanResult = new ClassGraph().acceptPaths(roots.toArray(String[]::new)).scan()) {
+            return new ResourceIndex(roots, scanResult.getAllResources().getPaths());
+        }
+    }
+
+    /**
+     * Read an index manifest.
+     *
+     * @param in the manifest data to read
+     * @return the index
+     * @throws IOException if an I/O error occurs
+     * @see #write(OutputStream)
+     */
+    public static ResourceIndex read(InputStream in) throws IOException {
+        List<String> roots = new ArrayList<>(4);
+        List<String> resources = new ArrayList<>(64);
+        BufferedReader r = new BufferedReader(new InputStreamReader(in, UTF_8));
+        String line = null;
+        while ((line = r.readLine()) != null) {
+            if (line.startsWith(MANIFEST_ROOT_PREFIX)) {
+                roots.add(line.substring(MANIFEST_ROOT_PREFIX.length()));
+            } else if (!line.isBlank()) {
+                resources.add(line);
+            }
+        }
+        return new ResourceIndex(roots, resources);
+    }
+
+    /**
+     * Write this index as a manifest.
+     *
+     * The manifest is {@code UTF-8} text, with one line for each root directory
+     * followed by one line for each resource path.
+     *
+     * @param out the destination to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(OutputStream out) throws IOException {
+        Writer w = new OutputStreamWriter(out, UTF_8);
+        for (String root : roots) {
+            w.write(MANIFEST_ROOT_PREFIX);
+            w.write(root);
+            w.write('\n');
+        }
+        for (String resource : new TreeSet<>(resources)) {
+            w.write(resource);
+            w.write('\n');
+        }
+        w.flush();
+    }
+
+    private static String parent(String path) {
+        int idx = path.lastIndexOf('/');
+        return (idx < 0 ? "" : path.substring(0, idx));
+    }
+
+    private static String normalize(String directory) {
+        return (directory.endsWith("/") ? directory.substring(0, directory.length() - 1) : directory);
+    }
+
+    /**
+     * Test if a directory is within one of the indexed root directories.
+     *
+     * @param directory the directory to test
+     * @return {@code true} if the directory has been indexed
+     */
+    public boolean covers(String directory) {
+        final String dir = normalize(directory);
+        for (String root : roots) {
+            if (dir.equals(root) || dir.startsWith(root + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the resources directly within a directory.
+     *
+     * Resources within sub-directories are not included.
+     *
+     * @param directory the directory to get the resources of
+     * @return the sorted resource paths, never {@code null}
+     */
+    public List<String> resources(String directory) {
+        return directories.getOrDefault(normalize(directory), List.of());
+    }
+
+    /**
+     * Test if a resource exists.
+     *
+     * @param resource the resource path to test
+     * @return {@code true} if the resource has been indexed
+     */
+    public boolean contains(String resource) {
+        return resources.contains(resource);
+    }
+
+    /**
+     * Get the indexed root directories.
+     *
+     * @return the root directories
+     */
+    public Set<String> roots() {
+        return roots;
+    }
+
+    /**
+     * Get the number of indexed resources.
+     *
+     * @return the resource count
+     */
+    public int size() {
+        return resources.size();
+    }
+
+    /**
+     * Scan the {@link #DEFAULT_ROOTS} directories and write the index manifest.
+     *
+     * @param args the manifest file to write
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: ResourceIndex <manifest file>");
+            System.exit(1);
+        }
+        Path dest = Path.of(args[0]);
+        ResourceIndex index = scan(DEFAULT_ROOTS);
+        try {
+            if (dest.getParent() != null) {
+                Files.createDirectories(dest.getParent());
+            }
+            try (OutputStream out = Files.newOutputStream(dest)) {
+                index.write(out);
+            }
+            System.out.println("Indexed %d resources to %s".formatted(index.size(), dest));
+        } catch (IOException e) {
+            System.err.println("Error writing resource index [%s]: %s".formatted(dest, e.getMessage()));
+            System.exit(1);
+        }
+    }
+}
@@ -1,28 +1,48 @@
 package coding101.tq.util;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
+import coding101.tq.domain.Coordinate;
+import coding101.tq.domain.PagedTerrainMap;
 import coding101.tq.domain.TerrainMap;
 import coding101.tq.domain.TerrainType;
 import io.github.classgraph.ClassGraph;
-import io.github.classgraph.Resource;
 import io.github.classgraph.ScanResult;
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.SortedMap;
 import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -38,23 +58,60 @@ public class TerrainMapBuilder {
     public static final class Tile implements Comparable<Tile> {
         private final int x;
         private final int y;
-        private final TerrainType[][] terrain;
+        private final int width;
+        private final int height;
+        private final byte[] cells;
         private final Map<String, String> metadata;
 
         /**
          * Constructor.
          *
-         * @param x       the tile horizontal coordinate
-         * @param y       the tile vertical coordinate
-         * @param terrain the terrain data
+         * @param x        the tile horizontal coordinate
+         * @param y        the tile vertical coordinate
+         * @param terrain  the terrain data
+         * @param metadata the metadata
          * @throws IllegalArgumentException if any argument is {@literal null}
          */
         public Tile(int x, int y, TerrainType[][] terrain, Map<String, String> metadata) {
+            this(x, y, terrain[0].length, terrain.length, encode(terrain), metadata);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param x        the tile horizontal coordinate
+         * @param y        the tile vertical coordinate
+         * @param width    the number of columns
+         * @param height   the number of rows
+         * @param cells    the {@link TerrainType#code()} terrain data, in row-major
+         *                 order; this array is used directly, not copied
+         * @param metadata the metadata
+         * @throws IllegalArgumentException if any argument is {@literal null} or the
+         *                                  dimensions do not match the cell data
+         */
+        public Tile(int x, int y, int width, int height, byte[] cells, Map<String, String> metadata) {
             super();
             this.x = x;
             this.y = y;
-            this.terrain = Objects.requireNonNull(terrain);
+            this.width = width;
+            this.height = height;
+            this.cells = Objects.requireNonNull(cells);
             this.metadata = Objects.requireNonNull(metadata);
+            if (cells.length != width * height) {
+                throw new IllegalArgumentException(
+                        "Invalid tile cells: expected %dx%d cells but got %d.".formatted(width, height, cells.length));
+            }
+        }
+
+        private static byte[] encode(TerrainType[][] terrain) {
+            final int w = terrain[0].length;
+            final byte[] result = new byte[w * terrain.length];
+            for (int row = 0; row < terrain.length; row++) {
+                for (int col = 0, len = Math.min(w, terrain[row].length); col < len; col++) {
+                    result[row * w + col] = TerrainType.codeFor(terrain[row][col]);
+                }
+            }
+            return result;
         }
 
         /**
@@ -81,7 +138,7 @@ public class TerrainMapBuilder {
          * @return the number of columns.
          */
         public int getWidth() {
-            return terrain[0].length;
+            return width;
         }
 
         /**
@@ -90,16 +147,33 @@ public class TerrainMapBuilder {
          * @return the number of rows
          */
         public int getHeight() {
-            return terrain.length;
+            return height;
         }
 
         /**
          * Get the terrain data.
          *
+         * This returns a newly allocated copy of the terrain, as a 2D array of rows.
+         *
          * @return the terrain data
          */
         public TerrainType[][] getTerrain() {
-            return terrain;
+            TerrainType[][] result = new TerrainType[height][width];
+            for (int row = 0, i = 0; row < height; row++) {
+                for (int col = 0; col < width; col++, i++) {
+                    result[row][col] = TerrainType.forCode(cells[i]);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Get the terrain data as {@link TerrainType#code()} values.
+         *
+         * @return the terrain cells, in row-major order
+         */
+        public byte[] getCells() {
+            return cells;
         }
 
         /**
@@ -157,9 +231,28 @@ public class TerrainMapBuilder {
      * This pattern expects the name to follow the pattern <code>X,Y.tqmap</code>,
      * where {@code X} and {@code Y} are integer numbers.
      */
-    public static final Pattern RESOURCE_NAME_REGEX = Pattern.compile(".*(\\d+),(\\d+).tqmap");
+    public static final Pattern RESOURCE_NAME_REGEX = Pattern.compile("(?:.*/)?(\\d+),(\\d+)\\.tqmap");
+
+    /**
+     * The compiled (binary) tile resource file name pattern.
+     *
+     * This pattern expects the name to follow the pattern <code>X,Y.tqmapb</code>,
+     * where {@code X} and {@code Y} are integer numbers.
+     */
+    public static final Pattern BINARY_RESOURCE_NAME_REGEX = Pattern.compile("(?:.*/)?(\\d+),(\\d+)\\.tqmapb");
+
+    /** The compiled tile file name extension. */
+    public static final String BINARY_RESOURCE_EXTENSION = ".tqmapb";
+
+    /** The compiled tile format "magic" header bytes. */
+    public static final int BINARY_MAGIC = ('T' << 24) | ('Q' << 16) | ('M' << 8) | 'B';
 
-    private SortedSet<Tile> tiles = new TreeSet<>();
+    /** The compiled tile format version. */
+    public static final byte BINARY_VERSION = 1;
+
+    // concurrent so tiles can be added while parsing in parallel, and sorted so
+    // tiles are built in the same order regardless of the order they were added
+    private final SortedSet<Tile> tiles = new ConcurrentSkipListSet<>();
 
     /**
      * Constructor.
@@ -223,25 +316,17 @@ public class TerrainMapBuilder {
             }
         }
 
-        TerrainType[][] terrain = new TerrainType[rows][];
+        byte[] cells = new byte[rows * cols];
         Map<String, String> metadata = new LinkedHashMap<>(4);
         for (Tile t : tiles) {
             metadata.putAll(t.getMetadata());
-            for (int row = 0, len = t.getHeight(); row < len; row++) {
-                int destRow = t.y * tileHeight + row;
-                if (terrain[destRow] == null) {
-                    terrain[destRow] = new TerrainType[cols];
-                }
+            for (int row = 0; row < tileHeight; row++) {
                 System.arraycopy(
-                        t.terrain[row],
-                        0,
-                        terrain[destRow],
-                        t.x * tileWidth,
-                        Math.min(t.terrain[row].length, tileWidth));
+                        t.cells, row * tileWidth, cells, (t.y * tileHeight + row) * cols + t.x * tileWidth, tileWidth);
             }
         }
 
-        return new TerrainMap(name, terrain, metadata);
+        return new TerrainMap(name, cols, rows, cells, metadata);
     }
 
     /**
@@ -252,36 +337,61 @@ public class TerrainMapBuilder {
      * @throws IllegalArgumentException if the resource cannot be parsed
      */
     public static TerrainMapBuilder parseResources(String directoryName) {
+        return parseResources(directoryName, 1);
+    }
+
+    /**
+     * Parse all tile resources in a directory, possibly in parallel.
+     *
+     * The loaded tiles are the same regardless of the degree of parallelism.
+     *
+     * @param directoryName the directory to scan and parse all tile resources from
+     * @param parallelism   the maximum number of tiles to parse concurrently; if
+     *                      less than {@code 2} then tiles are parsed one at a time
+     *                      on the calling thread
+     * @return the builder
+     * @throws IllegalArgumentException if the resource cannot be parsed
+     */
+    public static TerrainMapBuilder parseResources(String directoryName, int parallelism) {
         TerrainMapBuilder b = new TerrainMapBuilder();
-        try (ScanResult scanResult = new ClassGraph().acceptPaths(directoryName).scan()) {
-            scanResult.getResourcesMatchingPattern(RESOURCE_NAME_REGEX).forEach((Resource res) -> {
-                try (InputStream in = res.open()) {
-                    b.addTile(parseTileResource(res.getPath(), in));
+        ForkJoinPool pool = (parallelism > 1 ? new ForkJoinPool(parallelism) : null);
+        try {
+            // load compiled tiles first, so they take precedence over text tiles
+            final List<String> resources = classpathResources(directoryName);
+            b.addTiles(pool, matching(resources, BINARY_RESOURCE_NAME_REGEX), TerrainMapBuilder::parseTileResource);
+            b.addTiles(pool, matching(resources, RESOURCE_NAME_REGEX), TerrainMapBuilder::parseTileResource);
+            if (b.getSize() < 1) {
+                // try loading file paths
+                List<Path> binaryPaths = new ArrayList<>(8);
+                List<Path> textPaths = new ArrayList<>(8);
+                try (DirectoryStream<Path> s = Files.newDirectoryStream(Path.of(directoryName), (Path p) -> {
+                    String fileName = p.getFileName().toString();
+                    return BINARY_RESOURCE_NAME_REGEX.matcher(fileName).matches()
+                            || RESOURCE_NAME_REGEX.matcher(fileName).find();
+                })) {
+                    s.forEach(p -> (isCompiledTile(p) ? binaryPaths : textPaths).add(p));
+                } catch (NoSuchFileException e) {
+                    throw new IllegalArgumentException("Map directory [%s] not found!".formatted(directoryName));
                 } catch (IOException e) {
                     throw new IllegalArgumentException(
-                            "Error parsing resource [%s]: %s".formatted(res.getPath(), e.getMessage()), e);
+                            "Error loading tile files from directory [%s]: %s"
+                                    .formatted(directoryName, e.getMessage()),
+                            e);
                 }
-            });
-        }
-        if (b.getSize() < 1) {
-            // try loading file paths
-            try (DirectoryStream<Path> s = Files.newDirectoryStream(Path.of(directoryName), (Path p) -> {
-                Matcher m = RESOURCE_NAME_REGEX.matcher(p.getFileName().toString());
-                return m.find();
-            })) {
-                s.forEach(p -> {
+                // load compiled tiles first, so they take precedence over text tiles
+                b.addTiles(pool, binaryPaths, TerrainMapBuilder::parseCompiledTile);
+                b.addTiles(pool, textPaths, (Path p) -> {
                     try (InputStream in = Files.newInputStream(p)) {
-                        b.addTile(parseTileResource(p.toString(), in));
+                        return parseTileResource(p.toString(), in);
                     } catch (IOException e) {
                         throw new IllegalArgumentException(
                                 "Error parsing resource [%s]: %s".formatted(p, e.getMessage()), e);
                     }
                 });
-            } catch (NoSuchFileException e) {
-                throw new IllegalArgumentException("Map directory [%s] not found!".formatted(directoryName));
-            } catch (IOException e) {
-                throw new IllegalArgumentException(
-                        "Error loading tile files from directory [%s]: %s".formatted(directoryName, e.getMessage()), e);
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
             }
         }
         if (b.getSize() < 1) {
@@ -291,21 +401,60 @@ public class TerrainMapBuilder {
         return b;
     }
 
+    /**
+     * Parse and add a collection of tiles.
+     *
+     * @param <T>     the tile source type
+     * @param pool    the pool to parse the tiles in, or {@code null} to parse on
+     *                the calling thread
+     * @param sources the tile sources
+     * @param parser  the tile parser
+     * @throws IllegalArgumentException if any tile cannot be parsed
+     */
+    private <T> void addTiles(ForkJoinPool pool, Collection<T> sources, Function<T, Tile> parser) {
+        if (pool == null || sources.size() < 2) {
+            for (T source : sources) {
+                addTile(parser.apply(source));
+            }
+            return;
+        }
+        try {
+            pool.submit(() -> sources.parallelStream().map(parser).forEach(this::addTile))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted parsing tiles.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalArgumentException("Error parsing tiles: %s".formatted(e.getCause()), e.getCause());
+        }
+    }
+
     /**
      * Parse {@code US_ASCII} encoded {@link TerrainType} resource.
      *
      * @param resource the resource to parse; must have a file name that matches
-     *                 {@link #RESOURCE_NAME_REGEX}
+     *                 {@link #RESOURCE_NAME_REGEX} or
+     *                 {@link #BINARY_RESOURCE_NAME_REGEX}
      * @return the parsed tile
      * @throws IllegalArgumentException if the resource cannot be parsed
      */
     public static Tile parseTileResource(String resource) {
+        final boolean compiled = BINARY_RESOURCE_NAME_REGEX.matcher(resource).matches();
         // first try classpath resource
         try {
             try (InputStream in = TerrainMapBuilder.class.getClassLoader().getResourceAsStream(resource)) {
+                if (compiled) {
+                    return parseCompiledTile(resource, ByteBuffer.wrap(in.readAllBytes()));
+                }
                 return parseTileResource(resource, in);
             } catch (NullPointerException e) {
                 // resource not found; try as file path
+                if (compiled) {
+                    return parseCompiledTile(Paths.get(resource));
+                }
                 try (InputStream in2 = Files.newInputStream(Paths.get(resource))) {
                     return parseTileResource(resource, in2);
                 }
@@ -370,15 +519,7 @@ public class TerrainMapBuilder {
                 // skip blank line
                 continue;
             } else if (line.charAt(0) == '#') {
-                if (line.length() > 1 && line.charAt(1) == '-') {
-                    // metadata line
-                    Matcher m = METADATA_REGEX.matcher(line);
-                    if (m.matches()) {
-                        String key = m.group(1).toLowerCase();
-                        String val = m.group(2).trim();
-                        metadata.put(key, val);
-                    }
-                }
+                parseMetadataLine(line, metadata);
                 continue;
             }
             // since we assume the data is US_ASCII, the string length is our row length
@@ -390,4 +531,338 @@ public class TerrainMapBuilder {
         }
         return rows.toArray(TerrainType[][]::new);
     }
+
+    private static void parseMetadataLine(String line, Map<String, String> metadata) {
+        if (line.length() > 1 && line.charAt(1) == '-') {
+            // metadata line
+            Matcher m = METADATA_REGEX.matcher(line);
+            if (m.matches()) {
+                String key = m.group(1).toLowerCase();
+                String val = m.group(2).trim();
+                metadata.put(key, val);
+            }
+        }
+    }
+
+    /**
+     * Parse just the metadata of a tile resource.
+     *
+     * For {@code US_ASCII} encoded resources only the metadata lines that appear
+     * before the first row of terrain data are parsed.
+     *
+     * @param resource the resource to parse; must have a file name that matches
+     *                 {@link #RESOURCE_NAME_REGEX} or
+     *                 {@link #BINARY_RESOURCE_NAME_REGEX}
+     * @return the metadata
+     * @throws IllegalArgumentException if the resource cannot be parsed
+     */
+    public static Map<String, String> parseTileMetadata(String resource) {
+        Map<String, String> metadata = new LinkedHashMap<>(4);
+        InputStream in = TerrainMapBuilder.class.getClassLoader().getResourceAsStream(resource);
+        try {
+            if (in == null) {
+                // try as file path
+                in = Files.newInputStream(Paths.get(resource));
+            }
+            if (BINARY_RESOURCE_NAME_REGEX.matcher(resource).matches()) {
+                DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+                if (data.readInt() != BINARY_MAGIC || data.readByte() != BINARY_VERSION) {
+                    throw new IllegalArgumentException(
+                            "Resource [%s] is not a supported compiled tile.".formatted(resource));
+                }
+                data.skipNBytes(3 + 4 + 4);
+                for (int i = 0, count = data.readInt(); i < count; i++) {
+                    String key = readCompiledString(data);
+                    metadata.put(key, readCompiledString(data));
+                }
+            } else {
+                BufferedReader r = new BufferedReader(new InputStreamReader(in, US_ASCII));
+                String line = null;
+                while ((line = r.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    } else if (line.charAt(0) != '#') {
+                        break;
+                    }
+                    parseMetadataLine(line, metadata);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(
+                    "Error reading resource [%s]: %s".formatted(resource, e.getMessage()), e);
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * Find all tile resources in a directory, without parsing them.
+     *
+     * If both a compiled and text tile resource exist for the same tile, the
+     * compiled resource is returned.
+     *
+     * @param directoryName the directory to scan for tile resources
+     * @return mapping of tile coordinates to associated resource names, suitable
+     *         for passing to {@link #parseTileResource(String)}
+     * @throws IllegalArgumentException if the directory does not contain any tile
+     *                                  resources
+     */
+    public static SortedMap<Coordinate, String> indexResources(String directoryName) {
+        SortedMap<Coordinate, String> index = new TreeMap<>();
+        final List<String> resources = classpathResources(directoryName);
+        for (String res : matching(resources, BINARY_RESOURCE_NAME_REGEX)) {
+            index.putIfAbsent(tileCoordinate(res), res);
+        }
+        for (String res : matching(resources, RESOURCE_NAME_REGEX)) {
+            index.putIfAbsent(tileCoordinate(res), res);
+        }
+        if (index.isEmpty()) {
+            // try file paths
+            try (DirectoryStream<Path> s = Files.newDirectoryStream(Path.of(directoryName))) {
+                for (Path p : s) {
+                    String fileName = p.getFileName().toString();
+                    if (BINARY_RESOURCE_NAME_REGEX.matcher(fileName).matches()) {
+                        index.put(tileCoordinate(fileName), p.toString());
+                    } else if (RESOURCE_NAME_REGEX.matcher(fileName).matches()) {
+                        index.putIfAbsent(tileCoordinate(fileName), p.toString());
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                throw new IllegalArgumentException("Map directory [%s] not found!".formatted(directoryName));
+            } catch (IOException e) {
+                throw new IllegalArgumentException(
+                        "Error loading tile files from directory [%s]: %s".formatted(directoryName, e.getMessage()), e);
+            }
+        }
+        if (index.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Map directory [%s] does not contain any map tile files!".formatted(directoryName));
+        }
+        return index;
+    }
+
+    /**
+     * Find the classpath resources directly within a directory.
+     *
+     * Directories covered by {@link ResourceIndex#defaultIndex()} are resolved
+     * from that index; otherwise the directory is scanned.
+     *
+     * @param directoryName the directory
+     * @return the resource paths
+     */
+    private static List<String> classpathResources(String directoryName) {
+        final ResourceIndex index = ResourceIndex.defaultIndex();
+        if (index.covers(directoryName)) {
+            return index.resources(directoryName);
+        }
+        try (ScanResult scanResult = new ClassGraph().acceptPathsNonRecursive(directoryName).scan()) {
+            return scanResult.getAllResources().getPaths();
+        }
+    }
+
+    private static List<String> matching(List<String> resources, Pattern pattern) {
+        return resources.stream().filter(r -> pattern.matcher(r).matches()).toList();
+    }
+
+    private static Coordinate tileCoordinate(String resource) {
+        Matcher m = BINARY_RESOURCE_NAME_REGEX.matcher(resource);
+        if (!m.matches()) {
+            m = RESOURCE_NAME_REGEX.matcher(resource);
+            m.find();
+        }
+        return new Coordinate(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+    }
+
+    /**
+     * Create a {@link PagedTerrainMap} from all tile resources in a directory.
+     *
+     * Only the tile metadata, and the first tile to determine the tile size, are
+     * parsed up front. All tiles are parsed on demand as the map is accessed.
+     *
+     * @param directoryName  the directory to scan for tile resources
+     * @param name           the map name
+     * @param maxCachedTiles the maximum number of tiles to keep in memory
+     * @return the map
+     * @throws IllegalArgumentException if the tile resources cannot be parsed
+     */
+    public static PagedTerrainMap parsePagedResources(String directoryName, String name, int maxCachedTiles) {
+        final SortedMap<Coordinate, String> index = indexResources(directoryName);
+        final Tile first = parseTileResource(index.get(index.firstKey()));
+
+        // merge metadata in the same (row, column) order as build()
+        final List<Coordinate> coordinates = new ArrayList<>(index.keySet());
+        coordinates.sort(Comparator.comparingInt(Coordinate::y).thenComparingInt(Coordinate::x));
+        int tileCols = 0;
+        int tileRows = 0;
+        Map<String, String> metadata = new LinkedHashMap<>(4);
+        for (Coordinate c : coordinates) {
+            metadata.putAll(parseTileMetadata(index.get(c)));
+            tileCols = Math.max(tileCols, c.x() + 1);
+            tileRows = Math.max(tileRows, c.y() + 1);
+        }
+
+        return new PagedTerrainMap(
+                name,
+                first.getWidth(),
+                first.getHeight(),
+                tileCols,
+                tileRows,
+                metadata,
+                maxCachedTiles,
+                (tileX, tileY) -> {
+                    String resource = index.get(new Coordinate(tileX, tileY));
+                    return (resource != null ? parseTileResource(resource).getCells() : null);
+                });
+    }
+
+    private static boolean isCompiledTile(Path path) {
+        return path.getFileName().toString().endsWith(BINARY_RESOURCE_EXTENSION);
+    }
+
+    /**
+     * Parse a compiled tile file.
+     *
+     * The file is memory-mapped and the terrain data copied out in bulk.
+     *
+     * @param path the path of the file to parse; must have a file name that
+     *             matches {@link #BINARY_RESOURCE_NAME_REGEX}
+     * @return the parsed tile
+     * @throws IllegalArgumentException if the file cannot be parsed
+     * @see #writeCompiledTile(Tile, OutputStream)
+     */
+    public static Tile parseCompiledTile(Path path) {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            return parseCompiledTile(path.toString(), ch.map(MapMode.READ_ONLY, 0, ch.size()));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error reading resource [%s]: %s".formatted(path, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Parse compiled tile data.
+     *
+     * The compiled format is:
+     *
+     * <ol>
+     * <li>{@link #BINARY_MAGIC} as a 4-byte integer</li>
+     * <li>{@link #BINARY_VERSION} as a 1-byte integer, followed by 3 reserved
+     * bytes</li>
+     * <li>the tile width and height, as 4-byte integers</li>
+     * <li>the number of metadata entries, as a 4-byte integer, followed by each
+     * key and value as {@code UTF-8} strings, each prefixed by a 2-byte unsigned
+     * length</li>
+     * <li>the terrain, as one {@code US_ASCII} {@link TerrainType} key byte per
+     * cell in row-major order, with {@code 0} used for cells without any
+     * terrain</li>
+     * </ol>
+     *
+     * All integers are big-endian.
+     *
+     * @param resource the resource name; must have a file name that matches
+     *                 {@link #BINARY_RESOURCE_NAME_REGEX}
+     * @param buf      the data to parse, positioned at the start of the tile
+     * @return the parsed tile
+     * @throws IllegalArgumentException if the resource cannot be parsed
+     */
+    public static Tile parseCompiledTile(String resource, ByteBuffer buf) {
+        Matcher matcher = BINARY_RESOURCE_NAME_REGEX.matcher(resource);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Resource must match 'X,Y.tqmapb' pattern.");
+        }
+        try {
+            buf.order(ByteOrder.BIG_ENDIAN);
+            if (buf.getInt() != BINARY_MAGIC) {
+                throw new IllegalArgumentException("Resource [%s] is not a compiled tile.".formatted(resource));
+            }
+            final byte version = buf.get();
+            if (version != BINARY_VERSION) {
+                throw new IllegalArgumentException(
+                        "Resource [%s] compiled tile version %d not supported.".formatted(resource, version));
+            }
+            buf.position(buf.position() + 3);
+            final int width = buf.getInt();
+            final int height = buf.getInt();
+            final int metadataCount = buf.getInt();
+            Map<String, String> metadata = new LinkedHashMap<>(Math.max(4, metadataCount));
+            for (int i = 0; i < metadataCount; i++) {
+                String key = readCompiledString(buf);
+                metadata.put(key, readCompiledString(buf));
+            }
+            if (width < 1 || height < 1) {
+                throw new IllegalArgumentException(
+                        "Resource [%s] has invalid dimensions %dx%d.".formatted(resource, width, height));
+            }
+            final byte[] cells = new byte[width * height];
+            buf.get(cells);
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = TerrainType.codeForKey(cells[i] & 0xFF);
+            }
+            return new Tile(
+                    Integer.parseInt(matcher.group(1)),
+                    Integer.parseInt(matcher.group(2)),
+                    width,
+                    height,
+                    cells,
+                    metadata);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Resource [%s] is truncated.".formatted(resource), e);
+        }
+    }
+
+    private static String readCompiledString(DataInputStream in) throws IOException {
+        byte[] data = new byte[in.readUnsignedShort()];
+        in.readFully(data);
+        return new String(data, UTF_8);
+    }
+
+    private static String readCompiledString(ByteBuffer buf) {
+        byte[] data = new byte[Short.toUnsignedInt(buf.getShort())];
+        buf.get(data);
+        return new String(data, UTF_8);
+    }
+
+    /**
+     * Write a tile in the compiled format.
+     *
+     * @param tile the tile to write
+     * @param out  the destination
+     * @throws IOException if any I/O error occurs
+     * @see #parseCompiledTile(String, ByteBuffer)
+     */
+    public static void writeCompiledTile(Tile tile, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(BINARY_MAGIC);
+        data.writeByte(BINARY_VERSION);
+        data.write(new byte[3]);
+        data.writeInt(tile.getWidth());
+        data.writeInt(tile.getHeight());
+        data.writeInt(tile.getMetadata().size());
+        for (Entry<String, String> e : tile.getMetadata().entrySet()) {
+            writeCompiledString(data, e.getKey());
+            writeCompiledString(data, e.getValue());
+        }
+        final byte[] cells = tile.getCells();
+        final byte[] keys = new byte[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            keys[i] = (byte) TerrainType.keyForCode(cells[i]);
+        }
+        data.write(keys);
+        data.flush();
+    }
+
+    private static void writeCompiledString(DataOutputStream out, String s) throws IOException {
+        byte[] data = s.getBytes(UTF_8);
+        if (data.length > 0xFFFF) {
+            throw new IOException("Metadata value too long (%d bytes).".formatted(data.length));
+        }
+        out.writeShort(data.length);
+        out.write(data);
+    }
 }
@@ -0,0 +1,240 @@
+package coding101.tq.util;
+
+import coding101.tq.domain.TerrainMap;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of {@link TerrainMap} instances, keyed by map name.
+ *
+ * The cache is bounded by the total number of terrain cells of all cached maps.
+ * When adding a map would exceed that bound, the least recently used maps are
+ * evicted. Optionally the maps can be held via {@link SoftReference}, so the
+ * garbage collector can reclaim them when memory is low.
+ *
+ * Maps never change, so the cached instances are returned directly, and can be
+ * shared by any number of games.
+ *
+ * This class is thread-safe.
+ */
+public class TerrainMapCache {
+
+    private final long maxCells;
+    private final boolean softReferences;
+    private final Function<String, TerrainMap> loader;
+    private final LinkedHashMap<String, CachedMap> maps = new LinkedHashMap<>(8, 0.75f, true);
+
+    // the maps being loaded, so concurrent requests for the same map load it once
+    private final ConcurrentMap<String, CompletableFuture<TerrainMap>> loading = new ConcurrentHashMap<>(4);
+
+    private long cells;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    private static final class CachedMap {
+
+        private final long cells;
+        private final TerrainMap map;
+        private final SoftReference<TerrainMap> ref;
+
+        private CachedMap(TerrainMap map, boolean soft) {
+            super();
+            this.cells = (long) map.width() * map.height();
+            this.map = (soft ? null : map);
+            this.ref = (soft ? new SoftReference<>(map) : null);
+        }
+
+        private TerrainMap get() {
+            return (ref != null ? ref.get() : map);
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxCells       the maximum total number of terrain cells to cache
+     * @param softReferences {@code true} to cache maps via soft references
+     * @param loader         the function to load a map by name, on a cache miss
+     * @throws IllegalArgumentException if {@code loader} is {@code null}
+     */
+    public TerrainMapCache(long maxCells, boolean softReferences, Function<String, TerrainMap> loader) {
+        super();
+        this.maxCells = maxCells;
+        this.softReferences = softReferences;
+        this.loader = Objects.requireNonNull(loader);
+    }
+
+    /**
+     * Get a map, loading it if it is not cached.
+     *
+     * If the map is already being loaded by another thread, this method waits for
+     * that load to complete rather than loading the map again.
+     *
+     * @param name the name of the map to get
+     * @return the map
+     * @throws IllegalArgumentException if the map cannot be loaded
+     */
+    public TerrainMap get(String name) {
+        TerrainMap map = cached(name);
+        if (map != null) {
+            return map;
+        }
+        final CompletableFuture<TerrainMap> load = new CompletableFuture<>();
+        final CompletableFuture<TerrainMap> existing = loading.putIfAbsent(name, load);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw e;
+            }
+        }
+        try {
+            // another thread may have finished loading since the cache was checked
+            map = peek(name);
+            if (map == null) {
+                map = loader.apply(name);
+                put(name, map);
+            }
+            load.complete(map);
+            return map;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(name, load);
+        }
+    }
+
+    private synchronized TerrainMap peek(String name) {
+        CachedMap cached = maps.get(name);
+        return (cached != null ? cached.get() : null);
+    }
+
+    /**
+     * Test if a map is cached.
+     *
+     * This does not affect the hit or miss counts.
+     *
+     * @param name the name of the map to test
+     * @return {@code true} if the map is cached
+     */
+    public synchronized boolean contains(String name) {
+        CachedMap cached = maps.get(name);
+        return (cached != null && cached.get() != null);
+    }
+
+    /**
+     * Add a map to the cache.
+     *
+     * If the map is larger than the cache bound it will not be cached.
+     *
+     * @param name the name of the map
+     * @param map  the map
+     */
+    public synchronized void put(String name, TerrainMap map) {
+        CachedMap cached = new CachedMap(map, softReferences);
+        if (cached.cells > maxCells) {
+            return;
+        }
+        CachedMap old = maps.put(name, cached);
+        if (old != null) {
+            cells -= old.cells;
+        }
+        cells += cached.cells;
+        for (Iterator<Entry<String, CachedMap>> itr = maps.entrySet().iterator();
+                cells > maxCells && itr.hasNext(); ) {
+            Entry<String, CachedMap> e = itr.next();
+            cells -= e.getValue().cells;
+            itr.remove();
+            evictionCount++;
+        }
+    }
+
+    private synchronized TerrainMap cached(String name) {
+        CachedMap cached = maps.get(name);
+        TerrainMap map = (cached != null ? cached.get() : null);
+        if (map != null) {
+            hitCount++;
+            return map;
+        }
+        if (cached != null) {
+            // soft reference cleared
+            maps.remove(name);
+            cells -= cached.cells;
+            evictionCount++;
+        }
+        missCount++;
+        return null;
+    }
+
+    /**
+     * Remove all cached maps.
+     */
+    public synchronized void clear() {
+        maps.clear();
+        cells = 0;
+    }
+
+    /**
+     * Get the number of cached maps.
+     *
+     * @return the number of cached maps
+     */
+    public synchronized int size() {
+        return maps.size();
+    }
+
+    /**
+     * Get the total number of terrain cells of all cached maps.
+     *
+     * @return the number of cached cells
+     */
+    public synchronized long cells() {
+        return cells;
+    }
+
+    /**
+     * Get the number of times a requested map was found in the cache.
+     *
+     * @return the hit count
+     */
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the number of times a requested map was not found in the cache.
+     *
+     * @return the miss count
+     */
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    /**
+     * Get the number of maps evicted from the cache.
+     *
+     * @return the eviction count
+     */
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TerrainMapCache{size=" + maps.size() + ", cells=" + cells + ", hits=" + hitCount + ", misses="
+                + missCount + ", evictions=" + evictionCount + "}";
+    }
+}
@@ -0,0 +1,110 @@
+package coding101.tq.util;
+
+import coding101.tq.util.TerrainMapBuilder.Tile;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compile {@code .tqmap} text tiles into the binary {@code .tqmapb} format.
+ *
+ * Each compiled tile is written next to its source tile. When a directory
+ * contains both, {@link TerrainMapBuilder} loads the compiled tile.
+ *
+ * @see TerrainMapBuilder#writeCompiledTile(Tile, OutputStream)
+ */
+public final class TerrainMapCompiler {
+
+    private TerrainMapCompiler() {
+        // not available
+    }
+
+    /**
+     * Compile a single text tile file.
+     *
+     * @param source the text tile file to compile
+     * @return the compiled tile file path
+     * @throws IllegalArgumentException if the tile cannot be parsed
+     * @throws IOException              if any I/O error occurs
+     */
+    public static Path compileTile(Path source) throws IOException {
+        Tile tile;
+        try (InputStream in = Files.newInputStream(source)) {
+            tile = TerrainMapBuilder.parseTileResource(source.toString(), in);
+        }
+        String fileName = source.getFileName().toString();
+        Path dest = source.resolveSibling(
+                fileName.substring(0, fileName.lastIndexOf('.')) + TerrainMapBuilder.BINARY_RESOURCE_EXTENSION);
+
+        // write to temp file, then move, to prevent broken data on failed compile
+        Path tmp = Files.createTempFile(source.getParent(), "tile-", TerrainMapBuilder.BINARY_RESOURCE_EXTENSION);
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            TerrainMapBuilder.writeCompiledTile(tile, out);
+        }
+        try {
+            Files.move(tmp, dest, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return dest;
+    }
+
+    /**
+     * Compile all text tile files in a directory, including all sub-directories.
+     *
+     * @param dir the directory to compile
+     * @return the compiled tile file paths
+     * @throws IllegalArgumentException if any tile cannot be parsed
+     * @throws IOException              if any I/O error occurs
+     */
+    public static List<Path> compileDirectory(Path dir) throws IOException {
+        List<Path> sources;
+        try (Stream<Path> s = Files.walk(dir)) {
+            sources = s.filter(p -> Files.isRegularFile(p)
+                            && p.getFileName().toString().endsWith(".tqmap")
+                            && TerrainMapBuilder.RESOURCE_NAME_REGEX
+                                    .matcher(p.getFileName().toString())
+                                    .find())
+                    .sorted()
+                    .toList();
+        }
+        List<Path> result = new ArrayList<>(sources.size());
+        for (Path source : sources) {
+            result.add(compileTile(source));
+        }
+        return result;
+    }
+
+    /**
+     * Compile map tiles.
+     *
+     * Each argument can be either a {@code .tqmap} file or a directory to compile
+     * all {@code .tqmap} files within.
+     *
+     * @param args the files or directories to compile
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: TerrainMapCompiler <map file or directory>...");
+            System.exit(1);
+        }
+        for (String arg : args) {
+            Path path = Path.of(arg);
+            try {
+                List<Path> compiled = Files.isDirectory(path) ? compileDirectory(path) : List.of(compileTile(path));
+                for (Path p : compiled) {
+                    System.out.println("Compiled %s".formatted(p));
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Error compiling map [%s]: %s".formatted(path, e.getMessage()));
+                System.exit(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package coding101.tq.util;
+
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Load child maps in the background as the player approaches them.
+ *
+ * As the player moves about the main map, call {@link #playerMoved(TerrainMap, int, int)}.
+ * Any {@link TerrainType#Cave} or {@link TerrainType#Town} within the configured
+ * distance of the player will have its child map loaded into a
+ * {@link TerrainMapCache} on a background thread. Pending loads for child maps
+ * the player has moved away from are cancelled, if they have not started yet.
+ *
+ * Many players can share one prefetcher, by passing a player key to
+ * {@link #playerMoved(Object, TerrainMap, int, int)}. The child maps near each
+ * player are tracked separately, so a pending load is only cancelled once no
+ * player is near it any more. Call {@link #playerLeft(Object)} once a player
+ * stops playing.
+ *
+ * Child maps should then be obtained via {@link #get(String)}, which tracks how
+ * often a requested map had already been prefetched.
+ *
+ * This class is thread-safe.
+ */
+public class TerrainMapPrefetcher implements AutoCloseable {
+
+    private final TerrainMapCache cache;
+    private final int distance;
+    private final ExecutorService executor;
+    private final Map<String, Future<?>> pending = new ConcurrentHashMap<>(8);
+
+    // the child maps near each player, and the number of players near each child map
+    private final Map<Object, Set<String>> nearByPlayer = new HashMap<>(4);
+    private final Map<String, Integer> nearCounts = new HashMap<>(8);
+
+    private long requestCount;
+    private long hitCount;
+    private long prefetchCount;
+    private long cancelCount;
+
+    /**
+     * Constructor.
+     *
+     * @param cache    the cache to prefetch maps into
+     * @param distance the maximum distance from the player, in cells, to prefetch
+     *                 child maps for
+     * @throws IllegalArgumentException if {@code cache} is {@code null} or
+     *                                  {@code distance} is negative
+     */
+    public TerrainMapPrefetcher(TerrainMapCache cache, int distance) {
+        super();
+        this.cache = Objects.requireNonNull(cache);
+        if (distance < 0) {
+            throw new IllegalArgumentException("The distance argument must not be negative.");
+        }
+        this.distance = distance;
+        this.executor = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().daemon().name("TQ Prefetch").factory());
+    }
+
+    /**
+     * Handle a player movement on a main map.
+     *
+     * This is for a prefetcher used by a single player.
+     *
+     * @param map the main map the player is on
+     * @param x   the player x coordinate
+     * @param y   the player y coordinate
+     */
+    public void playerMoved(TerrainMap map, int x, int y) {
+        playerMoved(this, map, x, y);
+    }
+
+    /**
+     * Handle a player movement on a main map.
+     *
+     * @param player the key of the player that moved, compared by equality
+     * @param map    the main map the player is on
+     * @param x      the player x coordinate
+     * @param y      the player y coordinate
+     */
+    public void playerMoved(Object player, TerrainMap map, int x, int y) {
+        final Set<String> near = new HashSet<>(4);
+        final int size = distance * 2 + 1;
+        map.walk(x - distance, y - distance, size, size, (col, row, t) -> {
+            if (t == TerrainType.Cave || t == TerrainType.Town) {
+                near.add(TerrainMap.childMapName(col, row));
+            }
+        });
+        synchronized (this) {
+            final Set<String> previous = nearByPlayer.put(player, near);
+            if (previous != null) {
+                for (String name : previous) {
+                    if (!near.contains(name)) {
+                        noLongerNear(name);
+                    }
+                }
+            }
+            for (String name : near) {
+                if (previous == null || !previous.contains(name)) {
+                    nearCounts.merge(name, 1, Integer::sum);
+                }
+                if (pending.containsKey(name) || cache.contains(name)) {
+                    continue;
+                }
+                prefetchCount++;
+                // add to pending before executing, so the load can remove itself when done
+                FutureTask<Void> task = new FutureTask<>(() -> load(name), null);
+                pending.put(name, task);
+                executor.execute(task);
+            }
+        }
+    }
+
+    /**
+     * Handle a player no longer playing.
+     *
+     * Any pending loads no other player is near are cancelled.
+     *
+     * @param player the key of the player, as passed to
+     *               {@link #playerMoved(Object, TerrainMap, int, int)}
+     */
+    public synchronized void playerLeft(Object player) {
+        final Set<String> previous = nearByPlayer.remove(player);
+        if (previous != null) {
+            for (String name : previous) {
+                noLongerNear(name);
+            }
+        }
+    }
+
+    private void noLongerNear(String name) {
+        if (nearCounts.merge(name, -1, Integer::sum) > 0) {
+            return;
+        }
+        // no player is near any more: cancel any pending load
+        nearCounts.remove(name);
+        Future<?> f = pending.get(name);
+        if (f != null && f.cancel(false)) {
+            pending.remove(name, f);
+            cancelCount++;
+        }
+    }
+
+    private void load(String name) {
+        try {
+            cache.get(name);
+        } catch (RuntimeException e) {
+            // ignore here; will be thrown again when requested via get()
+        } finally {
+            pending.remove(name);
+        }
+    }
+
+    /**
+     * Get a child map.
+     *
+     * If the map is being prefetched, this method will wait for that to complete.
+     *
+     * @param name the name of the map to get
+     * @return the map
+     * @throws IllegalArgumentException if the map cannot be loaded
+     */
+    public TerrainMap get(String name) {
+        Future<?> f = pending.get(name);
+        if (f != null) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (CancellationException | ExecutionException e) {
+                // ignore and load directly
+            }
+        }
+        final boolean hit = cache.contains(name);
+        synchronized (this) {
+            requestCount++;
+            if (hit) {
+                hitCount++;
+            }
+        }
+        return cache.get(name);
+    }
+
+    /**
+     * Get the number of maps requested via {@link #get(String)}.
+     *
+     * @return the request count
+     */
+    public synchronized long requestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Get the number of requested maps that had already been loaded.
+     *
+     * @return the hit count
+     */
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the ratio of requested maps that had already been loaded.
+     *
+     * @return the hit rate, between 0 and 1
+     */
+    public synchronized double hitRate() {
+        return (requestCount > 0 ? (double) hitCount / requestCount : 0.0);
+    }
+
+    /**
+     * Get the number of prefetch loads submitted.
+     *
+     * @return the prefetch count
+     */
+    public synchronized long prefetchCount() {
+        return prefetchCount;
+    }
+
+    /**
+     * Get the number of prefetch loads cancelled before they started.
+     *
+     * @return the cancel count
+     */
+    public synchronized long cancelCount() {
+        return cancelCount;
+    }
+
+    /**
+     * Cancel all pending loads and stop the background thread.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        pending.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TerrainMapPrefetcher{requests=" + requestCount + ", hits=" + hitCount + ", prefetches="
+                + prefetchCount + ", cancels=" + cancelCount + "}";
+    }
+}
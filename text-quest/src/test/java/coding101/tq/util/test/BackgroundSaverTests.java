@@ -0,0 +1,180 @@
+package coding101.tq.util.test;
+
+import static coding101.tq.util.test.TestFixtures.grassMap;
+import static coding101.tq.util.test.TestFixtures.mapper;
+import static coding101.tq.util.test.TestFixtures.persistence;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.Player;
+import coding101.tq.domain.PlayerChanges;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.util.BackgroundSaver;
+import coding101.tq.util.Persistence;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for the {@link BackgroundSaver} class.
+ */
+public class BackgroundSaverTests {
+
+    @Test
+    public void saveInBackground(@TempDir Path dir) throws IOException {
+        // GIVEN
+        TerrainMap map = grassMap();
+        Path save = dir.resolve("game.tqsave");
+        Persistence persistence = persistence();
+        Player player = new Player();
+        player.trackChanges();
+
+        // WHEN
+        CompletableFuture<Boolean> first;
+        CompletableFuture<Boolean> last;
+        try (BackgroundSaver saver = new BackgroundSaver(persistence, save)) {
+            player.moveTo(map, 1, 1);
+            first = saver.save(player);
+            player.moveTo(map, 2, 2);
+            player.addCoins(3);
+            saver.save(player);
+            player.moveTo(map, 3, 3);
+            last = saver.save(player);
+        }
+        Player result = persistence.loadPlayer(save);
+
+        // THEN
+        then(first).as("First save completed, compacting into new save file").isCompletedWithValue(true);
+        then(last).as("Last save completed").isDone();
+        then(result.getX()).as("Latest X restored").isEqualTo(3);
+        then(result.getCoins()).as("Coins restored").isEqualTo(3);
+        then(result.hasVisited(map, 1, 1)).as("First visit restored").isTrue();
+        then(result.hasVisited(map, 2, 2)).as("Second visit restored").isTrue();
+    }
+
+    @Test
+    public void firstSaveIncludesUntrackedState(@TempDir Path dir) throws IOException {
+        // GIVEN
+        TerrainMap map = grassMap();
+        Path save = dir.resolve("game.tqsave");
+        Persistence persistence = persistence();
+        Player player = new Player();
+        player.moveTo(map, 1, 1);
+        player.trackChanges();
+
+        // WHEN
+        CompletableFuture<Boolean> first;
+        try (BackgroundSaver saver = new BackgroundSaver(persistence, save)) {
+            player.moveTo(map, 2, 2);
+            first = saver.save(player);
+            player.moveTo(map, 3, 3);
+            saver.save(player);
+        }
+        Player result = persistence.loadPlayer(save);
+
+        // THEN
+        then(first).as("First save completed as snapshot").isCompletedWithValue(true);
+        then(result.getX()).as("Latest X restored").isEqualTo(3);
+        then(result.hasVisited(map, 1, 1)).as("Visit before tracking changes restored").isTrue();
+        then(result.hasVisited(map, 2, 2)).as("Visit in snapshot restored").isTrue();
+        then(result.hasVisited(map, 3, 3)).as("Visit in journal restored").isTrue();
+    }
+
+    @Test
+    public void saveAfterFailedWrite(@TempDir Path dir) throws IOException {
+        // GIVEN
+        TerrainMap map = grassMap();
+        Path save = dir.resolve("game.tqsave");
+        Path journal = Persistence.journalPath(save);
+        Persistence persistence = persistence();
+        Player player = new Player();
+        player.trackChanges();
+
+        // WHEN
+        CompletableFuture<Boolean> failed;
+        CompletableFuture<Boolean> retried;
+        try (BackgroundSaver saver = new BackgroundSaver(persistence, save)) {
+            player.moveTo(map, 1, 1);
+            saver.save(player).join();
+
+            // a directory in place of the journal cannot be appended to
+            Files.createDirectories(journal.resolve("blocked"));
+            player.moveTo(map, 2, 2);
+            player.interacted(map, 2, 2);
+            failed = saver.save(player);
+            failed.exceptionally(e -> false).join();
+            Files.delete(journal.resolve("blocked"));
+            Files.delete(journal);
+
+            player.moveTo(map, 3, 3);
+            retried = saver.save(player);
+        }
+        Player result = persistence.loadPlayer(save);
+
+        // THEN
+        then(failed).as("Save to blocked journal failed").isCompletedExceptionally();
+        then(retried).as("Next save completed as snapshot").isCompletedWithValue(true);
+        then(result.getX()).as("Latest X restored").isEqualTo(3);
+        then(result.hasVisited(map, 2, 2)).as("Visit from failed save restored").isTrue();
+        then(result.hasInteracted(map, 2, 2)).as("Interaction from failed save restored").isTrue();
+    }
+
+    @Test
+    public void coalesceQueuedSaves(@TempDir Path dir) throws Exception {
+        // GIVEN
+        TerrainMap map = grassMap();
+        Path save = dir.resolve("game.tqsave");
+        CountDownLatch appending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Persistence persistence = new Persistence(mapper()) {
+
+            @Override
+            public void appendChanges(List<PlayerChanges> changes, Path journal) throws IOException {
+                appending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                super.appendChanges(changes, journal);
+            }
+        };
+        Player player = new Player();
+        player.trackChanges();
+
+        // WHEN
+        long requests;
+        long writes;
+        try (BackgroundSaver saver = new BackgroundSaver(persistence, save)) {
+            player.moveTo(map, 1, 1);
+            saver.save(player).join();
+
+            // block the next write, so the following saves are queued behind it
+            player.moveTo(map, 2, 2);
+            saver.save(player);
+            appending.await();
+            player.moveTo(map, 3, 3);
+            saver.save(player);
+            player.moveTo(map, 4, 4);
+            CompletableFuture<Boolean> last = saver.save(player);
+            release.countDown();
+            last.join();
+            requests = saver.requestCount();
+            writes = saver.writeCount();
+        }
+        Player result = persistence.loadPlayer(save);
+
+        // THEN
+        then(requests).as("All saves requested").isEqualTo(4L);
+        then(writes).as("Fewer writes than saves").isLessThan(requests);
+        then(writes).as("Queued saves written together").isEqualTo(3L);
+        then(result.getX()).as("Latest X restored").isEqualTo(4);
+        then(result.hasVisited(map, 2, 2)).as("Blocked save restored").isTrue();
+        then(result.hasVisited(map, 3, 3)).as("Coalesced save restored").isTrue();
+    }
+}
@@ -2,12 +2,15 @@ package coding101.tq.util.test;
 
 import static org.assertj.core.api.BDDAssertions.from;
 import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 import static org.assertj.core.api.InstanceOfAssertFactories.list;
 import static org.assertj.core.api.InstanceOfAssertFactories.type;
 
 import coding101.tq.util.BitSetJson;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import java.io.IOException;
+import java.util.Base64;
 import java.util.BitSet;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -173,4 +176,72 @@ public class BitSetJsonTests {
                 .contains(expected1, expected2);
         // @formatter:on
     }
+
+    @Test
+    public void serialize_compact() throws IOException {
+        // GIVEN
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(BitSetJson.createBitSetModule(true));
+        BitSet full = new BitSet();
+        full.set(0, 64 * 64);
+        BitSet sparse = new BitSet();
+        sparse.set(3);
+        sparse.set(1);
+
+        // WHEN
+        String fullJson = mapper.writeValueAsString(full);
+        String sparseJson = mapper.writeValueAsString(sparse);
+
+        // THEN
+        then(fullJson).as("Run-length encoded 64 full words").isEqualTo("\"QP//////////\"");
+        then(sparseJson).as("Word array used when smaller than encoding").isEqualTo("[10]");
+    }
+
+    @Test
+    public void deserialize_compact() throws IOException {
+        // GIVEN
+        String json = "\"QP//////////\"";
+
+        // WHEN
+        BitSet bits = mapper.readValue(json, BitSet.class);
+
+        // THEN
+        BitSet expected = new BitSet();
+        expected.set(0, 64 * 64);
+        then(bits).as("Run-length encoded string parsed").isEqualTo(expected);
+    }
+
+    @Test
+    public void deserialize_manyWords() throws IOException {
+        // GIVEN
+        long[] words = new long[100];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = i + 1;
+        }
+        String json = mapper.writeValueAsString(words);
+
+        // WHEN
+        BitSet bits = mapper.readValue(json, BitSet.class);
+
+        // THEN
+        then(bits).as("All words parsed").isEqualTo(BitSet.valueOf(words));
+    }
+
+    @Test
+    public void deserialize_compactTooLong() {
+        // GIVEN
+        byte[] run = new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 0, 0, 0, 0, 0, 0, 0, 0};
+        String json = "\"" + Base64.getEncoder().withoutPadding().encodeToString(run) + "\"";
+
+        // THEN
+        thenThrownBy(() -> BitSetJson.decodeRuns(run))
+                .as("Run count beyond maximum words")
+                .isInstanceOf(IllegalArgumentException.class);
+        thenThrownBy(() -> mapper.readValue(json, BitSet.class))
+                .as("Encoded string beyond maximum words")
+                .isInstanceOf(MismatchedInputException.class);
+        then(BitSetJson.decodeRuns(BitSetJson.encodeRuns(new long[BitSetJson.MAX_DECODED_WORDS])))
+                .as("Maximum words decoded")
+                .hasSize(BitSetJson.MAX_DECODED_WORDS);
+    }
 }
@@ -0,0 +1,50 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import coding101.tq.domain.Coordinate;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link Coordinate} class.
+ */
+public class CoordinateTests {
+
+    @Test
+    public void toKey() {
+        // GIVEN
+        Coordinate coord = new Coordinate(12, 345);
+
+        // WHEN
+        String key = coord.toKey();
+
+        // THEN
+        then(key).as("Key encoded").isEqualTo("12,345");
+        then(Coordinate.forKey(key)).as("Key parsed").isEqualTo(coord);
+    }
+
+    @Test
+    public void find() {
+        // WHEN
+        long key = Coordinate.find("map-1,a,23,4.tqmap", false);
+        long spaced = Coordinate.find("start: 7 ,\t8", true);
+        long notSpaced = Coordinate.find("7 , 8", false);
+
+        // THEN
+        then(key).as("First complete coordinate found").isEqualTo(Coordinate.pack(23, 4));
+        then(spaced).as("Whitespace around comma allowed").isEqualTo(Coordinate.pack(7, 8));
+        then(notSpaced).as("Whitespace around comma not allowed").isEqualTo(-1L);
+    }
+
+    @Test
+    public void forKey_invalid() {
+        // THEN
+        thenThrownBy(() -> Coordinate.forKey("1;2"))
+                .as("No coordinate")
+                .isInstanceOf(IllegalArgumentException.class);
+        thenThrownBy(() -> Coordinate.forKey("1,99999999999"))
+                .as("Value too large")
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,140 @@
+package coding101.tq.util.test;
+
+import static coding101.tq.util.test.TestFixtures.cells;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.GameConfiguration;
+import coding101.tq.GameEngine;
+import coding101.tq.GameEngine.Outcome;
+import coding101.tq.GameEngine.Result;
+import coding101.tq.domain.Player;
+import coding101.tq.domain.PlayerItems;
+import coding101.tq.domain.Settings;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link GameEngine} class.
+ */
+public class GameEngineTests {
+
+    private TerrainMap mainMap;
+    private TerrainMap caveMap;
+    private Player player;
+    private GameEngine engine;
+
+    @BeforeEach
+    public void setup() {
+        byte[] cells = cells(10, 10, TerrainType.Grass);
+        Arrays.fill(cells, 0, 10, TerrainType.Water.code());
+        cells[0 * 10 + 2] = TerrainType.Ship.code();
+        cells[3 * 10 + 3] = TerrainType.Chest.code();
+        cells[5 * 10 + 5] = TerrainType.Cave.code();
+        mainMap = new TerrainMap("main", 10, 10, cells, Map.of());
+
+        byte[] caveCells = cells(10, 10, TerrainType.Grass);
+        caveCells[1 * 10 + 1] = TerrainType.Cave.code();
+        caveMap = new TerrainMap(
+                TerrainMap.childMapName(5, 5), 10, 10, caveCells, Map.of(TerrainMap.START_META, "1,1"));
+
+        player = new Player(GameConfiguration.DEFAULTS);
+        player.moveTo(mainMap, 1, 1);
+        engine = new GameEngine(
+                new Settings(null, new PlayerItems()),
+                mainMap,
+                player,
+                name -> name.equals(caveMap.getName()) ? caveMap : null,
+                new Random(1));
+    }
+
+    @Test
+    public void move() {
+        // WHEN
+        Result explored = engine.execute(GameEngine.Move.RIGHT);
+        Result moved = engine.execute(GameEngine.Move.LEFT);
+        player.moveTo(mainMap, 9, 9);
+        Result blocked = engine.execute(GameEngine.Move.DOWN);
+
+        // THEN
+        then(explored.outcome()).as("Moved to new coordinate").isEqualTo(Outcome.EXPLORED);
+        then(moved.outcome()).as("Moved to visited coordinate").isEqualTo(Outcome.MOVED);
+        then(blocked.outcome()).as("Can not move off map").isEqualTo(Outcome.BLOCKED);
+        then(player.getXp()).as("Explore XP earned once").isEqualTo(1);
+    }
+
+    @Test
+    public void hireShip() {
+        // GIVEN
+        player.setCoins(150);
+        player.moveTo(mainMap, 2, 0);
+
+        // WHEN
+        Result offer = engine.execute(GameEngine.Interact.INSTANCE);
+        Result hire = engine.execute(GameEngine.HireShip.INSTANCE);
+        Result sail = engine.execute(GameEngine.Move.RIGHT);
+        Result land = engine.execute(GameEngine.Move.DOWN);
+        Result disembark = engine.execute(GameEngine.Disembark.INSTANCE);
+
+        // THEN
+        then(offer).as("Ship offered for hire").isEqualTo(new Result(Outcome.SHIP_OFFERED, GameEngine.SHIP_COST));
+        then(hire.outcome()).as("Ship hired").isEqualTo(Outcome.SHIP_HIRED);
+        then(player.getCoins()).as("Ship cost paid").isEqualTo(50);
+        then(sail.outcome()).as("Sailed over water").isEqualTo(Outcome.EXPLORED);
+        then(land.outcome()).as("Ship can not sail on land").isEqualTo(Outcome.BLOCKED);
+        then(disembark.outcome()).as("Disembarked").isEqualTo(Outcome.DISEMBARKED);
+        then(player.vehicleLocatedAt(mainMap, 3, 0)).as("Ship left where disembarked").isTrue();
+    }
+
+    @Test
+    public void openChest() {
+        // GIVEN
+        player.moveTo(mainMap, 3, 3);
+
+        // WHEN
+        Result first = engine.execute(GameEngine.Interact.INSTANCE);
+        Result second = engine.execute(GameEngine.Interact.INSTANCE);
+
+        // THEN
+        then(first.outcome()).as("Chest opened").isIn(Outcome.CHEST_COINS, Outcome.CHEST_DAMAGE, Outcome.CHEST_EMPTY);
+        then(second.outcome()).as("Chest only opened once").isEqualTo(Outcome.CHEST_ALREADY_OPENED);
+        then(player.getXp()).as("Chest XP earned once").isEqualTo(5);
+    }
+
+    @Test
+    public void enterAndExitCave() {
+        // GIVEN
+        player.moveTo(mainMap, 5, 5);
+
+        // WHEN
+        Result enter = engine.execute(GameEngine.Interact.INSTANCE);
+        TerrainMap enteredMap = engine.map();
+        int enteredX = player.getX();
+        Result exit = engine.execute(GameEngine.Interact.INSTANCE);
+
+        // THEN
+        then(enter.outcome()).as("Entered cave").isEqualTo(Outcome.ENTERED_MAP);
+        then(enteredMap).as("Cave map active").isSameAs(caveMap);
+        then(enteredX).as("Moved to cave start").isEqualTo(1);
+        then(exit.outcome()).as("Exited cave").isEqualTo(Outcome.EXITED_MAP);
+        then(engine.map()).as("Main map active").isSameAs(mainMap);
+        then(player.getX()).as("Moved to cave entrance").isEqualTo(5);
+    }
+
+    @Test
+    public void dead() {
+        // GIVEN
+        player.deductHealth(player.getHealth());
+
+        // WHEN
+        Result result = engine.execute(GameEngine.Move.RIGHT);
+
+        // THEN
+        then(result.outcome()).as("Dead player can not move").isEqualTo(Outcome.DEAD);
+        then(player.getX()).as("Player not moved").isEqualTo(1);
+    }
+}
@@ -0,0 +1,67 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.GlyphCache;
+import com.googlecode.lanterna.TextCharacter;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link GlyphCache} class.
+ */
+public class GlyphCacheTests {
+
+    @Test
+    public void invalidateCell() {
+        // GIVEN
+        GlyphCache cache = new GlyphCache(4);
+        cache.resize(10, 5);
+        TextCharacter[] page = cache.page("main", 1, 0);
+        page[2 * 10 + 3] = TextCharacter.fromCharacter('#')[0];
+        page[2 * 10 + 4] = TextCharacter.fromCharacter('#')[0];
+
+        // WHEN
+        cache.invalidate("main", 13, 2);
+        cache.invalidate("other", 14, 2);
+
+        // THEN
+        then(cache.page("main", 1, 0)).as("Same page returned").isSameAs(page);
+        then(page[2 * 10 + 3]).as("Cell invalidated").isNull();
+        then(page[2 * 10 + 4]).as("Cell on other map not invalidated").isNotNull();
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        // GIVEN
+        GlyphCache cache = new GlyphCache(2);
+        cache.resize(10, 5);
+        TextCharacter[] first = cache.page("main", 0, 0);
+        cache.page("main", 1, 0);
+
+        // WHEN
+        cache.page("main", 0, 0);
+        cache.page("main", 2, 0);
+
+        // THEN
+        then(cache.size()).as("Page count limited").isEqualTo(2);
+        then(cache.page("main", 0, 0)).as("Recently used page kept").isSameAs(first);
+    }
+
+    @Test
+    public void resizeClears() {
+        // GIVEN
+        GlyphCache cache = new GlyphCache(4);
+        cache.resize(10, 5);
+        cache.page("main", 0, 0);
+
+        // WHEN
+        cache.resize(10, 5);
+        int sameSize = cache.size();
+        cache.resize(12, 5);
+
+        // THEN
+        then(sameSize).as("Same size keeps pages").isEqualTo(1);
+        then(cache.size()).as("New size clears pages").isEqualTo(0);
+        then(cache.page("main", 0, 0)).as("New page size").hasSize(60);
+    }
+}
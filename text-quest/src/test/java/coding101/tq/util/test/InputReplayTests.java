@@ -0,0 +1,67 @@
+package coding101.tq.util.test;
+
+import static coding101.tq.util.test.TestFixtures.grassMap;
+import static coding101.tq.util.test.TestFixtures.mapper;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.GameConfiguration;
+import coding101.tq.domain.Player;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.util.InputRecorder;
+import coding101.tq.util.InputReplay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.input.KeyType;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for the {@link InputRecorder} and {@link InputReplay} classes.
+ */
+public class InputReplayTests {
+
+    @Test
+    public void recordAndReplay(@TempDir Path dir) throws IOException {
+        // GIVEN
+        TerrainMap map = grassMap();
+        Player player = new Player(GameConfiguration.DEFAULTS.withChestRewardFactor(42));
+        player.moveTo(map, 2, 3);
+        ObjectMapper mapper = mapper();
+        Path path = dir.resolve("game.tqrec");
+
+        // WHEN
+        try (InputRecorder recorder = new InputRecorder(mapper, path, 123L, new TerminalSize(80, 24), player)) {
+            recorder.record(new KeyStroke(KeyType.ArrowLeft));
+            recorder.record(null);
+            recorder.record(new KeyStroke('E', false, false, true));
+            recorder.record(new KeyStroke(KeyType.Enter));
+        }
+        InputReplay replay = InputReplay.load(mapper, path);
+
+        // THEN
+        then(replay.seed()).as("Seed restored").isEqualTo(123L);
+        then(replay.size().getColumns()).as("Columns restored").isEqualTo(80);
+        then(replay.size().getRows()).as("Rows restored").isEqualTo(24);
+        then(replay.player().getX()).as("Player X restored").isEqualTo(2);
+        then(replay.player().getY()).as("Player Y restored").isEqualTo(3);
+        then(replay.config()).as("Configuration restored").isEqualTo(player.config());
+        then(replay.player().config()).as("Player configured").isEqualTo(player.config());
+        then(replay.count()).as("Null key stroke not recorded").isEqualTo(3);
+
+        KeyStroke key = replay.next();
+        then(key.getKeyType()).as("Arrow key type restored").isEqualTo(KeyType.ArrowLeft);
+
+        key = replay.next();
+        then(key.getKeyType()).as("Character key type restored").isEqualTo(KeyType.Character);
+        then(key.getCharacter()).as("Character restored").isEqualTo('E');
+        then(key.isShiftDown()).as("Shift restored").isTrue();
+        then(key.isCtrlDown()).as("Ctrl restored").isFalse();
+
+        then(replay.next().getKeyType()).as("Enter key type restored").isEqualTo(KeyType.Enter);
+        then(replay.next().getKeyType()).as("EOF once replayed").isEqualTo(KeyType.EOF);
+        then(replay.position()).as("All replayed").isEqualTo(3);
+    }
+}
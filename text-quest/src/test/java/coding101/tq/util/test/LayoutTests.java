@@ -0,0 +1,31 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.Layout;
+import coding101.tq.Layout.Bounds;
+import com.googlecode.lanterna.TerminalSize;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link Layout} class.
+ */
+public class LayoutTests {
+
+    @Test
+    public void computeBounds() {
+        // WHEN
+        Layout layout = Layout.of(new TerminalSize(80, 24), 20, 2);
+
+        // THEN
+        then(layout.ui()).as("UI inside border").isEqualTo(new Bounds(1, 1, 23, 79));
+        then(layout.map()).as("Map left of info, above status").isEqualTo(new Bounds(1, 1, 19, 57));
+        then(layout.info()).as("Info below title").isEqualTo(new Bounds(3, 59, 19, 78));
+        then(layout.status()).as("Status below map").isEqualTo(new Bounds(21, 1, 23, 57));
+        then(layout.health()).as("Health below info").isEqualTo(new Bounds(21, 59, 23, 79));
+        then(layout.map().width()).as("Map width").isEqualTo(57);
+        then(layout.map().height()).as("Map height").isEqualTo(19);
+        then(layout.map().contains(57, 19)).as("Bottom right inside").isTrue();
+        then(layout.map().contains(58, 19)).as("Beyond right outside").isFalse();
+    }
+}
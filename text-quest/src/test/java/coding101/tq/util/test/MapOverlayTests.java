@@ -0,0 +1,56 @@
+package coding101.tq.util.test;
+
+import static coding101.tq.util.test.TestFixtures.map;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.GameConfiguration;
+import coding101.tq.domain.MapOverlay;
+import coding101.tq.domain.Player;
+import coding101.tq.domain.PlayerItems;
+import coding101.tq.domain.Shop;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link MapOverlay} class.
+ */
+public class MapOverlayTests {
+
+    @Test
+    public void shopsPerOverlay() {
+        // GIVEN
+        TerrainMap map = map("main", 4, 4, TerrainType.Shop);
+        MapOverlay overlay = new MapOverlay(new PlayerItems(), new Player(GameConfiguration.DEFAULTS), new Random());
+        MapOverlay other = new MapOverlay(new PlayerItems(), new Player(GameConfiguration.DEFAULTS), new Random());
+
+        // WHEN
+        Shop shop = overlay.shopAt(map, 1, 1);
+
+        // THEN
+        then(overlay.shopAt(map, 1, 1)).as("Same shop at same coordinate").isSameAs(shop);
+        then(overlay.shopAt(map, 2, 1)).as("Different shop at different coordinate").isNotSameAs(shop);
+        then(overlay.shopAt(map("other", 4, 4, TerrainType.Shop), 1, 1))
+                .as("Different shop on different map")
+                .isNotSameAs(shop);
+        then(other.shopAt(map, 1, 1)).as("Different shop for different player").isNotSameAs(shop);
+    }
+
+    @Test
+    public void clear() {
+        // GIVEN
+        TerrainMap map = map("main", 4, 4, TerrainType.Shop);
+        TerrainMap cave = map("cave", 4, 4, TerrainType.Shop);
+        MapOverlay overlay = new MapOverlay(new PlayerItems(), new Player(GameConfiguration.DEFAULTS), new Random());
+        Shop shop = overlay.shopAt(map, 1, 1);
+        Shop caveShop = overlay.shopAt(cave, 1, 1);
+
+        // WHEN
+        overlay.clear("cave");
+
+        // THEN
+        then(overlay.shopAt(map, 1, 1)).as("Other map shop kept").isSameAs(shop);
+        then(overlay.shopAt(cave, 1, 1)).as("Cleared map shop recreated").isNotSameAs(caveShop);
+    }
+}
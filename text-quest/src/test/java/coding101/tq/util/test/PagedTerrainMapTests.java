@@ -0,0 +1,207 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.PagedTerrainMap;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.util.TerrainMapBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link PagedTerrainMap} class.
+ */
+public class PagedTerrainMapTests {
+
+    private static byte[] tile(TerrainType type) {
+        byte[] cells = new byte[4];
+        Arrays.fill(cells, type.code());
+        return cells;
+    }
+
+    @Test
+    public void loadOnDemand() {
+        // GIVEN
+        List<String> loaded = new ArrayList<>();
+        PagedTerrainMap map = new PagedTerrainMap("test", 2, 2, 2, 2, Map.of(), 4, (x, y) -> {
+            loaded.add("%d,%d".formatted(x, y));
+            return tile(x == 1 && y == 1 ? TerrainType.Water : TerrainType.Grass);
+        });
+
+        // WHEN
+        TerrainType result = map.terrainAt(3, 3);
+
+        // THEN
+        then(result).as("Terrain loaded from tile").isEqualTo(TerrainType.Water);
+        then(loaded).as("Only accessed tile loaded").containsExactly("1,1");
+    }
+
+    @Test
+    public void missingTile() {
+        // GIVEN
+        PagedTerrainMap map = new PagedTerrainMap("test", 2, 2, 2, 2, Map.of(), 4, (x, y) -> null);
+
+        // WHEN
+        TerrainType result = map.terrainAt(1, 1);
+
+        // THEN
+        then(result).as("No terrain for missing tile").isNull();
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        // GIVEN
+        List<String> loaded = new ArrayList<>();
+        PagedTerrainMap map = new PagedTerrainMap("test", 2, 2, 2, 2, Map.of(), 2, (x, y) -> {
+            loaded.add("%d,%d".formatted(x, y));
+            return tile(TerrainType.Grass);
+        });
+
+        // WHEN
+        map.terrainAt(0, 0); // load 0,0
+        map.terrainAt(2, 0); // load 1,0
+        map.terrainAt(0, 0); // 0,0 most recently used
+        map.terrainAt(0, 2); // load 0,1, evicting 1,0
+        map.terrainAt(2, 0); // load 1,0 again
+
+        // THEN
+        then(map.cachedTileCount()).as("Cache bounded").isEqualTo(2);
+        then(loaded).as("Least recently used tile evicted").containsExactly("0,0", "1,0", "0,1", "1,0");
+        then(map.loadCount()).as("Load count").isEqualTo(4L);
+    }
+
+    @Test
+    public void concurrentAccess() throws Exception {
+        // GIVEN
+        AtomicInteger loads = new AtomicInteger();
+        PagedTerrainMap map = new PagedTerrainMap("test", 2, 2, 4, 4, Map.of(), 16, (x, y) -> {
+            loads.incrementAndGet();
+            return tile((x + y) % 2 == 0 ? TerrainType.Grass : TerrainType.Water);
+        });
+
+        // WHEN
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int t = 0; t < 4; t++) {
+                final int offset = t;
+                results.add(executor.submit(() -> {
+                    int mismatches = 0;
+                    for (int i = 0; i < 10_000; i++) {
+                        int x = (i + offset) % 8;
+                        int y = (i / 8 + offset) % 8;
+                        TerrainType expected = ((x / 2 + y / 2) % 2 == 0 ? TerrainType.Grass : TerrainType.Water);
+                        if (map.terrainAt(x, y) != expected) {
+                            mismatches++;
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+        }
+
+        // THEN
+        for (Future<Integer> result : results) {
+            then(result.get()).as("Every thread reads the correct terrain").isEqualTo(0);
+        }
+        then(loads.get()).as("Each tile loaded once").isEqualTo(16);
+        then(map.loadCount()).as("Load count").isEqualTo(16L);
+    }
+
+    @Test
+    public void concurrentAccessWithEviction() throws Exception {
+        // GIVEN
+        PagedTerrainMap map = new PagedTerrainMap("test", 2, 2, 4, 4, Map.of(), 4, (x, y) -> {
+            return tile((x + y) % 2 == 0 ? TerrainType.Grass : TerrainType.Water);
+        });
+
+        // WHEN
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < 16; t++) {
+                // each reader starts in its own tile, while the cache holds fewer tiles than readers
+                final int offset = t;
+                results.add(executor.submit(() -> {
+                    int mismatches = 0;
+                    for (int i = 0; i < 4_000; i++) {
+                        int tile = (offset + i / 4) % 16;
+                        int x = (tile % 4) * 2 + i % 2;
+                        int y = (tile / 4) * 2 + (i / 2) % 2;
+                        TerrainType expected = ((x / 2 + y / 2) % 2 == 0 ? TerrainType.Grass : TerrainType.Water);
+                        if (map.terrainAt(x, y) != expected) {
+                            mismatches++;
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+        }
+
+        // THEN
+        for (Future<Integer> result : results) {
+            then(result.get()).as("Every reader reads the correct terrain").isEqualTo(0);
+        }
+        then(map.cachedTileCount()).as("Cache bounded").isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    public void loadWithoutBlockingOtherTiles() throws Exception {
+        // GIVEN
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PagedTerrainMap map = new PagedTerrainMap("test", 2, 2, 2, 2, Map.of(), 4, (x, y) -> {
+            if (x == 0 && y == 0) {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return tile(TerrainType.Water);
+            }
+            return tile(TerrainType.Grass);
+        });
+
+        // WHEN
+        Future<TerrainType> slow;
+        TerrainType other;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                slow = executor.submit(() -> map.terrainAt(0, 0));
+                loading.await();
+                other = executor.submit(() -> map.terrainAt(3, 3)).get(5, TimeUnit.SECONDS);
+            } finally {
+                release.countDown();
+            }
+        }
+
+        // THEN
+        then(other).as("Other tile read while a tile is loading").isEqualTo(TerrainType.Grass);
+        then(slow.get()).as("Loading tile read once loaded").isEqualTo(TerrainType.Water);
+        then(map.loadCount()).as("Load count").isEqualTo(2L);
+    }
+
+    @Test
+    public void parseClassPathResources() {
+        // GIVEN
+        TerrainMap expected =
+                TerrainMapBuilder.parseResources("coding101/tq/util/test/map02").build("");
+
+        // WHEN
+        PagedTerrainMap result = TerrainMapBuilder.parsePagedResources("coding101/tq/util/test/map02", "", 1);
+
+        // THEN
+        then(result.render()).as("Paged map renders same as built map").isEqualTo(expected.render());
+        then(result.metadata()).as("Paged map metadata same as built map").isEqualTo(expected.metadata());
+        then(result.cachedTileCount()).as("Cache bounded").isEqualTo(1);
+    }
+}
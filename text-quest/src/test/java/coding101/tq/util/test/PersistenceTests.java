@@ -0,0 +1,198 @@
+package coding101.tq.util.test;
+
+import static coding101.tq.util.test.TestFixtures.cells;
+import static coding101.tq.util.test.TestFixtures.mapper;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.Coordinate;
+import coding101.tq.domain.Player;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.util.Persistence;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for the {@link Persistence} class.
+ */
+public class PersistenceTests {
+
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    public void setup() {
+        mapper = mapper();
+    }
+
+    private static TerrainMap waterMap() {
+        byte[] cells = cells(10, 10, TerrainType.Water);
+        cells[1 * 10 + 1] = TerrainType.Ship.code();
+        return new TerrainMap("main", 10, 10, cells, Map.of());
+    }
+
+    private static boolean saveChanges(Persistence persistence, Player player, Path save) throws IOException {
+        // append then compact, as BackgroundSaver does
+        persistence.appendChanges(List.of(player.takeChanges()), Persistence.journalPath(save));
+        if (persistence.journalCompactionNeeded(save)) {
+            persistence.compactJournal(save);
+            return true;
+        }
+        return false;
+    }
+
+    @Test
+    public void interactionsAndVehicles() throws IOException {
+        // GIVEN
+        TerrainMap map = waterMap();
+        Player player = new Player();
+        player.interacted(map, 4, 5);
+        player.moveTo(map, 1, 1);
+        player.board();
+        player.moveTo(map, 3, 1);
+        player.disembark();
+
+        // WHEN
+        Persistence persistence = new Persistence(mapper);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        persistence.savePlayer(player, out);
+        Player result = persistence.loadPlayer(new ByteArrayInputStream(out.toByteArray()));
+
+        // THEN
+        then(result.hasInteracted(map, 4, 5)).as("Interaction restored").isTrue();
+        then(result.hasInteracted(map, 5, 4)).as("Other coordinate not interacted").isFalse();
+        then(result.getVehicles())
+                .as("Vehicles restored")
+                .isEqualTo(Map.of("main", Map.of(new Coordinate(1, 1), new Coordinate(3, 1))));
+        then(result.vehicleLocatedAt(map, 3, 1)).as("Moved ship located").isTrue();
+        then(result.vehicleLocatedAt(map, 1, 1)).as("Ship no longer at origin").isFalse();
+    }
+
+    @Test
+    public void journalChanges(@TempDir Path dir) throws IOException {
+        // GIVEN
+        TerrainMap map = waterMap();
+        Path save = dir.resolve("game.tqsave");
+        Persistence persistence = new Persistence(mapper);
+        Player player = new Player();
+        player.trackChanges();
+        player.moveTo(map, 0, 0);
+        saveChanges(persistence, player, save);
+
+        // WHEN
+        player.moveTo(map, 1, 1);
+        player.board();
+        player.moveTo(map, 2, 1);
+        player.addCoins(5);
+        boolean compacted = saveChanges(persistence, player, save);
+        player.interacted(map, 4, 5);
+        player.moveTo(map, 3, 1);
+        saveChanges(persistence, player, save);
+        Files.writeString(Persistence.journalPath(save), "{\"x\":", StandardOpenOption.APPEND);
+        Player result = persistence.loadPlayer(save);
+
+        // THEN
+        then(compacted).as("Changes appended to journal").isFalse();
+        then(result.getX()).as("Latest X restored").isEqualTo(3);
+        then(result.getCoins()).as("Coins restored").isEqualTo(5);
+        then(result.getOnboard()).as("Onboard restored").isEqualTo(new Coordinate(1, 1));
+        then(result.hasVisited(map, 2, 1)).as("Journal visit restored").isTrue();
+        then(result.hasVisited(map, 0, 0)).as("Save file visit restored").isTrue();
+        then(result.hasInteracted(map, 4, 5)).as("Interaction restored").isTrue();
+        then(result.vehicleLocatedAt(map, 3, 1)).as("Moved ship located").isTrue();
+    }
+
+    @Test
+    public void saveAfterIncompleteEntry(@TempDir Path dir) throws IOException {
+        // GIVEN
+        TerrainMap map = waterMap();
+        Path save = dir.resolve("game.tqsave");
+        Persistence persistence = new Persistence(mapper);
+        Player player = new Player();
+        player.trackChanges();
+        player.moveTo(map, 0, 0);
+        saveChanges(persistence, player, save);
+        player.moveTo(map, 1, 1);
+        saveChanges(persistence, player, save);
+        Files.writeString(Persistence.journalPath(save), "{\"x\":", StandardOpenOption.APPEND);
+
+        // WHEN
+        player = persistence.loadPlayer(save);
+        player.trackChanges();
+        player.moveTo(map, 2, 2);
+        player.addCoins(3);
+        saveChanges(persistence, player, save);
+        player.moveTo(map, 3, 3);
+        saveChanges(persistence, player, save);
+        Player result = persistence.loadPlayer(save);
+
+        // THEN
+        then(result.getX()).as("Latest X restored").isEqualTo(3);
+        then(result.getCoins()).as("Coins saved after incomplete entry restored").isEqualTo(3);
+        then(result.hasVisited(map, 2, 2)).as("Visit saved after incomplete entry restored").isTrue();
+        then(result.hasVisited(map, 1, 1)).as("Visit saved before incomplete entry restored").isTrue();
+    }
+
+    @Test
+    public void appendAfterIncompleteEntry(@TempDir Path dir) throws IOException {
+        // GIVEN
+        TerrainMap map = waterMap();
+        Path save = dir.resolve("game.tqsave");
+        Persistence persistence = new Persistence(mapper);
+        Player player = new Player();
+        player.trackChanges();
+        player.moveTo(map, 0, 0);
+        saveChanges(persistence, player, save);
+        player.moveTo(map, 1, 1);
+        saveChanges(persistence, player, save);
+        Files.writeString(Persistence.journalPath(save), "{\"x\":", StandardOpenOption.APPEND);
+
+        // WHEN
+        player.moveTo(map, 4, 4);
+        saveChanges(persistence, player, save);
+        Player result = persistence.loadPlayer(save);
+
+        // THEN
+        then(result.getX()).as("Entry appended after incomplete entry restored").isEqualTo(4);
+    }
+
+    @Test
+    public void binaryFormat(@TempDir Path dir) throws IOException {
+        // GIVEN
+        TerrainMap map = waterMap();
+        Path jsonSave = dir.resolve("json.tqsave");
+        Path binarySave = dir.resolve("binary.tqsave");
+        Player player = new Player();
+        player.setActiveMapName(map.getName());
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 10; x++) {
+                player.visited(map, x, y);
+            }
+        }
+        player.interacted(map, 4, 5);
+        player.addCoins(5);
+
+        // WHEN
+        new Persistence(mapper).savePlayer(player, jsonSave);
+        Persistence binary = new Persistence(mapper, true);
+        binary.savePlayer(player, binarySave);
+        Player fromJson = binary.loadPlayer(jsonSave);
+        Player fromBinary = new Persistence(mapper).loadPlayer(binarySave);
+
+        // THEN
+        then(Files.size(binarySave)).as("Binary save smaller than JSON").isLessThan(Files.size(jsonSave));
+        then(fromJson.getCoins()).as("JSON save loaded by binary persistence").isEqualTo(5);
+        then(fromBinary.getCoins()).as("Binary save loaded by JSON persistence").isEqualTo(5);
+        then(fromBinary.hasVisited(map, 9, 9)).as("Visited restored").isTrue();
+        then(fromBinary.hasInteracted(map, 4, 5)).as("Interaction restored").isTrue();
+    }
+}
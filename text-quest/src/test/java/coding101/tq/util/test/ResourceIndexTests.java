@@ -0,0 +1,60 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.util.ResourceIndex;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link ResourceIndex} class.
+ */
+public class ResourceIndexTests {
+
+    private static ResourceIndex testIndex() {
+        return new ResourceIndex(
+                List.of("META-INF/tqmaps"),
+                List.of(
+                        "META-INF/tqmaps/main/0001,0000.tqmap",
+                        "META-INF/tqmaps/main/0000,0000.tqmap",
+                        "META-INF/tqmaps/main/0001,0002/0000,0000.tqmap"));
+    }
+
+    @Test
+    public void directoryResources() {
+        // GIVEN
+        ResourceIndex index = testIndex();
+
+        // WHEN
+        List<String> result = index.resources("META-INF/tqmaps/main");
+
+        // THEN
+        then(result)
+                .as("Only direct resources returned, sorted")
+                .containsExactly("META-INF/tqmaps/main/0000,0000.tqmap", "META-INF/tqmaps/main/0001,0000.tqmap");
+        then(index.covers("META-INF/tqmaps/main/0001,0002")).as("Sub-directory covered").isTrue();
+        then(index.covers("META-INF/tqitems")).as("Other directory not covered").isFalse();
+        then(index.resources("META-INF/tqmaps/other")).as("Unknown directory empty").isEmpty();
+    }
+
+    @Test
+    public void manifestRoundTrip() throws IOException {
+        // GIVEN
+        ResourceIndex index = testIndex();
+
+        // WHEN
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        ResourceIndex result = ResourceIndex.read(new ByteArrayInputStream(out.toByteArray()));
+
+        // THEN
+        then(result.roots()).as("Roots restored").containsExactly("META-INF/tqmaps");
+        then(result.size()).as("Resources restored").isEqualTo(3);
+        then(result.resources("META-INF/tqmaps/main/0001,0002"))
+                .as("Directory restored")
+                .containsExactly("META-INF/tqmaps/main/0001,0002/0000,0000.tqmap");
+    }
+}
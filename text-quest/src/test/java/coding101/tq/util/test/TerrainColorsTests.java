@@ -0,0 +1,38 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.ColorPalette;
+import coding101.tq.domain.ColorScheme;
+import coding101.tq.domain.TerrainColors;
+import coding101.tq.domain.TerrainType;
+import com.googlecode.lanterna.TextColor.ANSI;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link TerrainColors} class.
+ */
+public class TerrainColorsTests {
+
+    private static ColorPalette palette(String water, String wall) {
+        return new ColorPalette(
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                wall, water);
+    }
+
+    @Test
+    public void resolveColors() {
+        // GIVEN
+        ColorScheme scheme = new ColorScheme(palette("darkblue", null), palette("lightcyan", "Red"));
+
+        // WHEN
+        TerrainColors colors = new TerrainColors(scheme, ANSI.WHITE_BRIGHT, ANSI.BLACK);
+
+        // THEN
+        then(colors.background(TerrainType.Water)).as("Background resolved").isEqualTo(ANSI.BLUE);
+        then(colors.foreground(TerrainType.Water)).as("Foreground resolved").isEqualTo(ANSI.CYAN_BRIGHT);
+        then(colors.foreground(TerrainType.WallCorner)).as("Shared wall color resolved").isEqualTo(ANSI.RED_BRIGHT);
+        then(colors.background(TerrainType.Grass)).as("Default background").isEqualTo(ANSI.BLACK);
+        then(colors.foreground(null)).as("Default foreground for no terrain").isEqualTo(ANSI.WHITE_BRIGHT);
+    }
+}
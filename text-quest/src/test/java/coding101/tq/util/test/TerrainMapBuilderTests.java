@@ -5,11 +5,17 @@ import static org.assertj.core.api.BDDAssertions.then;
 import coding101.tq.domain.TerrainMap;
 import coding101.tq.util.TerrainMapBuilder;
 import coding101.tq.util.TerrainMapBuilder.Tile;
+import coding101.tq.util.TerrainMapCompiler;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Test cases for the {@link TerrainMapBuilder} class.
@@ -70,6 +76,22 @@ public class TerrainMapBuilderTests {
                 .isEqualTo(expectedMap);
     }
 
+    @Test
+    public void parseClassPathResources_parallel() {
+        // GIVEN
+        String expectedMap =
+                TerrainMapBuilder.parseResources("coding101/tq/util/test/map02").build("").render();
+
+        // WHEN
+        TerrainMap tm =
+                TerrainMapBuilder.parseResources("coding101/tq/util/test/map02", 4).build("");
+        String result = tm.render();
+
+        // THEN
+        then(result).as("Parallel parsed tiles same as sequential").isEqualTo(expectedMap);
+        then(tm.metadata()).as("Parallel merged metadata").containsEntry("start", "3,3");
+    }
+
     @Test
     public void parseTileMetadata() throws IOException {
         // GIVEN
@@ -103,4 +125,50 @@ public class TerrainMapBuilderTests {
 
         then(tm.metadata()).as("Metadata parsed and merged").containsExactlyInAnyOrderEntriesOf(expected);
     }
+
+    @Test
+    public void compiledTileRoundTrip() throws IOException {
+        // GIVEN
+        Tile tile;
+        try (InputStream in = getClass().getResourceAsStream("map02/0000,0000.tqmap")) {
+            tile = TerrainMapBuilder.parseTileResource("0000,0000.tqmap", in);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TerrainMapBuilder.writeCompiledTile(tile, out);
+
+        // WHEN
+        Tile result = TerrainMapBuilder.parseCompiledTile("0000,0000.tqmapb", ByteBuffer.wrap(out.toByteArray()));
+
+        // THEN
+        then(result.getWidth()).as("Width restored").isEqualTo(tile.getWidth());
+        then(result.getHeight()).as("Height restored").isEqualTo(tile.getHeight());
+        then(result.getCells()).as("Terrain restored").isEqualTo(tile.getCells());
+        then(result.getMetadata()).as("Metadata restored").containsExactlyEntriesOf(tile.getMetadata());
+    }
+
+    @Test
+    public void parseDirectory_compiledTilesPreferred(@TempDir Path dir) throws IOException {
+        // GIVEN
+        for (String name : new String[] {"0000,0000.tqmap", "0001,0000.tqmap", "0001,0001.tqmap"}) {
+            try (InputStream in = getClass().getResourceAsStream("map02/" + name)) {
+                Files.copy(in, dir.resolve(name));
+            }
+        }
+        TerrainMapCompiler.compileTile(dir.resolve("0000,0000.tqmap"));
+        Files.writeString(dir.resolve("0000,0000.tqmap"), "~~~~~\n~~~~~\n~~~~~\n~~~~~\n~~~~~\n");
+
+        // WHEN
+        TerrainMap tm = TerrainMapBuilder.parseResources(dir.toString()).build("");
+
+        // THEN
+        then(tm.render(0, 0, 5, 5))
+                .as("Compiled tile loaded in preference to text tile")
+                .isEqualTo("""
+				AAAAA
+				~~~~.
+				^^^AA
+				^^AAA
+				===~A
+				""".trim());
+    }
 }
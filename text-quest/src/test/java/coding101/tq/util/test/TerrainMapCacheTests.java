@@ -0,0 +1,112 @@
+package coding101.tq.util.test;
+
+import static coding101.tq.util.test.TestFixtures.map;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.util.TerrainMapCache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link TerrainMapCache} class.
+ */
+public class TerrainMapCacheTests {
+
+    @Test
+    public void loadOnce() {
+        // GIVEN
+        List<String> loaded = new ArrayList<>();
+        TerrainMapCache cache = new TerrainMapCache(100, false, name -> {
+            loaded.add(name);
+            return map(name, 2, 2, TerrainType.Grass);
+        });
+
+        // WHEN
+        TerrainMap first = cache.get("a");
+        TerrainMap second = cache.get("a");
+
+        // THEN
+        then(loaded).as("Map loaded once").containsExactly("a");
+        then(cache.hitCount()).as("Second get is hit").isEqualTo(1L);
+        then(cache.missCount()).as("First get is miss").isEqualTo(1L);
+        then(second).as("Cache hit returns cached instance").isSameAs(first);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        // GIVEN
+        List<String> loaded = new ArrayList<>();
+        TerrainMapCache cache = new TerrainMapCache(8, false, name -> {
+            loaded.add(name);
+            return map(name, 2, 2, TerrainType.Grass);
+        });
+
+        // WHEN
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        cache.get("c");
+
+        // THEN
+        then(cache.cells()).as("Cached cells within bound").isEqualTo(8L);
+        then(cache.evictionCount()).as("One map evicted").isEqualTo(1L);
+        then(cache.contains("a")).as("Recently used map retained").isTrue();
+        then(cache.contains("b")).as("Least recently used map evicted").isFalse();
+        then(cache.contains("c")).as("Newest map cached").isTrue();
+    }
+
+    @Test
+    public void tooLarge() {
+        // GIVEN
+        TerrainMapCache cache = new TerrainMapCache(3, false, name -> map(name, 2, 2, TerrainType.Grass));
+
+        // WHEN
+        cache.get("a");
+
+        // THEN
+        then(cache.size()).as("Map larger than cache not cached").isEqualTo(0);
+    }
+
+    @Test
+    public void concurrentLoadOnce() throws Exception {
+        // GIVEN
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TerrainMapCache cache = new TerrainMapCache(100, false, name -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return map(name, 2, 2, TerrainType.Grass);
+        });
+
+        // WHEN
+        TerrainMap first;
+        TerrainMap second;
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<TerrainMap> f1 = executor.submit(() -> cache.get("a"));
+            loading.await();
+            Future<TerrainMap> f2 = executor.submit(() -> cache.get("a"));
+            Thread.sleep(100);
+            release.countDown();
+            first = f1.get();
+            second = f2.get();
+        }
+
+        // THEN
+        then(loads.get()).as("Map loaded once").isEqualTo(1);
+        then(second).as("Waiting request returns loaded map").isSameAs(first);
+    }
+}
@@ -0,0 +1,136 @@
+package coding101.tq.util.test;
+
+import static coding101.tq.util.test.TestFixtures.cells;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.util.TerrainMapCache;
+import coding101.tq.util.TerrainMapPrefetcher;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link TerrainMapPrefetcher} class.
+ */
+public class TerrainMapPrefetcherTests {
+
+    private static TerrainMap mainMap() {
+        byte[] cells = cells(10, 10, TerrainType.Grass);
+        cells[2 * 10 + 2] = TerrainType.Cave.code();
+        cells[8 * 10 + 8] = TerrainType.Town.code();
+        return new TerrainMap("main", 10, 10, cells, Map.of());
+    }
+
+    private static TerrainMap childMap(String name) {
+        return new TerrainMap(name, 2, 2, new byte[4], Map.of());
+    }
+
+    @Test
+    public void prefetchNearby() {
+        // GIVEN
+        List<String> loaded = new CopyOnWriteArrayList<>();
+        TerrainMapCache cache = new TerrainMapCache(100, false, name -> {
+            loaded.add(name);
+            return childMap(name);
+        });
+
+        try (TerrainMapPrefetcher prefetcher = new TerrainMapPrefetcher(cache, 2)) {
+            // WHEN
+            prefetcher.playerMoved(mainMap(), 0, 0);
+            TerrainMap result = prefetcher.get("0002,0002");
+
+            // THEN
+            then(result.getName()).as("Child map returned").isEqualTo("0002,0002");
+            then(loaded).as("Only nearby child map loaded").containsExactly("0002,0002");
+            then(prefetcher.prefetchCount()).as("One map prefetched").isEqualTo(1L);
+            then(prefetcher.hitRate()).as("Request served by prefetch").isEqualTo(1.0);
+        }
+    }
+
+    @Test
+    public void notPrefetched() {
+        // GIVEN
+        TerrainMapCache cache = new TerrainMapCache(100, false, TerrainMapPrefetcherTests::childMap);
+
+        try (TerrainMapPrefetcher prefetcher = new TerrainMapPrefetcher(cache, 2)) {
+            // WHEN
+            prefetcher.playerMoved(mainMap(), 0, 0);
+            prefetcher.get("0008,0008");
+
+            // THEN
+            then(prefetcher.requestCount()).as("One request").isEqualTo(1L);
+            then(prefetcher.hitCount()).as("Distant map not prefetched").isEqualTo(0L);
+        }
+    }
+
+    @Test
+    public void sharedByPlayers() throws InterruptedException {
+        // GIVEN
+        List<String> loaded = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        TerrainMapCache cache = new TerrainMapCache(100, false, name -> {
+            if (name.equals("0002,0002")) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            loaded.add(name);
+            return childMap(name);
+        });
+        Object a = new Object();
+        Object b = new Object();
+
+        try (TerrainMapPrefetcher prefetcher = new TerrainMapPrefetcher(cache, 2)) {
+            // WHEN
+            prefetcher.playerMoved(a, mainMap(), 0, 0); // load of 0002,0002 blocks the prefetch thread
+            prefetcher.playerMoved(b, mainMap(), 9, 9); // load of 0008,0008 pending
+            prefetcher.playerMoved(a, mainMap(), 9, 9);
+            prefetcher.playerMoved(b, mainMap(), 0, 0); // a still near 0008,0008
+            release.countDown();
+            prefetcher.get("0008,0008");
+
+            // THEN
+            then(prefetcher.cancelCount()).as("Only map no player is near cancelled").isEqualTo(1L);
+            then(prefetcher.hitCount()).as("Map another player is near still prefetched").isEqualTo(1L);
+            then(loaded).as("Map another player is near loaded").contains("0008,0008");
+        }
+    }
+
+    @Test
+    public void playerLeft() {
+        // GIVEN
+        CountDownLatch release = new CountDownLatch(1);
+        TerrainMapCache cache = new TerrainMapCache(100, false, name -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return childMap(name);
+        });
+        Object a = new Object();
+        Object b = new Object();
+
+        try (TerrainMapPrefetcher prefetcher = new TerrainMapPrefetcher(cache, 2)) {
+            prefetcher.playerMoved(a, mainMap(), 0, 0); // load of 0002,0002 blocks the prefetch thread
+            prefetcher.playerMoved(a, mainMap(), 9, 9); // load of 0008,0008 pending
+            prefetcher.playerMoved(b, mainMap(), 9, 9);
+
+            // WHEN
+            prefetcher.playerLeft(a);
+            long afterFirst = prefetcher.cancelCount();
+            prefetcher.playerLeft(b);
+
+            // THEN
+            then(afterFirst).as("Map another player is near not cancelled").isEqualTo(1L);
+            then(prefetcher.cancelCount()).as("Map no player is near cancelled").isEqualTo(2L);
+            release.countDown();
+        }
+    }
+}
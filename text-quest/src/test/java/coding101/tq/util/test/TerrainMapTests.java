@@ -61,4 +61,24 @@ public class TerrainMapTests {
         // THEN
         then(result).as("Empty terrain returned for invalid coordinate").isEqualTo(TerrainType.Empty);
     }
+
+    @Test
+    public void terrainView() {
+        // WHEN
+        TerrainType[][] result = map01.terrain();
+
+        // THEN
+        then(result).as("Terrain view has map rows").hasNumberOfRows(map01.height());
+        then(result[7]).as("Terrain view row has map columns").hasSize(map01.width());
+        then(result[7][2]).as("Terrain view has cell terrain").isEqualTo(TerrainType.Town);
+    }
+
+    @Test
+    public void constructFromTerrainView() {
+        // WHEN
+        TerrainMap result = new TerrainMap("copy", map01.terrain(), map01.metadata());
+
+        // THEN
+        then(result.render()).as("Map constructed from terrain view renders the same").isEqualTo(map01.render());
+    }
 }
@@ -0,0 +1,70 @@
+package coding101.tq.util.test;
+
+import coding101.tq.TextQuest;
+import coding101.tq.domain.TerrainMap;
+import coding101.tq.domain.TerrainType;
+import coding101.tq.util.Persistence;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Shared fixtures for test cases.
+ */
+public class TestFixtures {
+
+    /**
+     * Create the JSON mapper the game uses.
+     *
+     * @return the mapper
+     * @see TextQuest#createMapper()
+     */
+    public static ObjectMapper mapper() {
+        return TextQuest.createMapper();
+    }
+
+    /**
+     * Create a JSON persistence service using {@link #mapper()}.
+     *
+     * @return the persistence
+     */
+    public static Persistence persistence() {
+        return new Persistence(mapper());
+    }
+
+    /**
+     * Create map cells all of one terrain type.
+     *
+     * @param width   the map width
+     * @param height  the map height
+     * @param terrain the terrain type
+     * @return the cells, in row-major order
+     */
+    public static byte[] cells(int width, int height, TerrainType terrain) {
+        byte[] cells = new byte[width * height];
+        Arrays.fill(cells, terrain.code());
+        return cells;
+    }
+
+    /**
+     * Create a map all of one terrain type, without metadata.
+     *
+     * @param name    the map name
+     * @param width   the map width
+     * @param height  the map height
+     * @param terrain the terrain type
+     * @return the map
+     */
+    public static TerrainMap map(String name, int width, int height, TerrainType terrain) {
+        return new TerrainMap(name, width, height, cells(width, height, terrain), Map.of());
+    }
+
+    /**
+     * Create a 10x10 grass map named {@code main}.
+     *
+     * @return the map
+     */
+    public static TerrainMap grassMap() {
+        return map("main", 10, 10, TerrainType.Grass);
+    }
+}
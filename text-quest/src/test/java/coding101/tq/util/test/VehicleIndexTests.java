@@ -0,0 +1,54 @@
+package coding101.tq.util.test;
+
+import static coding101.tq.domain.Coordinate.pack;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.Coordinate;
+import coding101.tq.domain.VehicleIndex;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link VehicleIndex} class.
+ */
+public class VehicleIndexTests {
+
+    @Test
+    public void moveVehicle() {
+        // GIVEN
+        VehicleIndex index = new VehicleIndex();
+        index.moveTo(pack(1, 1), pack(1, 1));
+
+        // WHEN
+        index.moveTo(pack(1, 1), pack(2, 1));
+        index.moveTo(pack(1, 1), pack(3, 1));
+
+        // THEN
+        then(index.locatedAt(pack(3, 1))).as("Vehicle at current location").isTrue();
+        then(index.locatedAt(pack(2, 1))).as("Vehicle no longer at previous location").isFalse();
+        then(index.locatedAt(pack(1, 1))).as("Vehicle no longer at origin").isFalse();
+        then(index.originAt(pack(3, 1), -1L)).as("Origin found by location").isEqualTo(pack(1, 1));
+        then(index.tracked(pack(1, 1))).as("Vehicle tracked by origin").isTrue();
+        then(index.toCoordinates())
+                .as("Coordinates")
+                .isEqualTo(Map.of(new Coordinate(1, 1), new Coordinate(3, 1)));
+    }
+
+    @Test
+    public void swapLocations() {
+        // GIVEN
+        VehicleIndex index = new VehicleIndex();
+        index.moveTo(pack(1, 1), pack(1, 1));
+        index.moveTo(pack(5, 5), pack(5, 5));
+
+        // WHEN
+        index.moveTo(pack(1, 1), pack(2, 2));
+        index.moveTo(pack(5, 5), pack(1, 1));
+
+        // THEN
+        then(index.originAt(pack(1, 1), -1L)).as("Second vehicle now at first origin").isEqualTo(pack(5, 5));
+        then(index.originAt(pack(2, 2), -1L)).as("First vehicle moved").isEqualTo(pack(1, 1));
+        then(index.locatedAt(pack(5, 5))).as("Second vehicle left origin").isFalse();
+        then(index.size()).as("Vehicle count").isEqualTo(2);
+    }
+}
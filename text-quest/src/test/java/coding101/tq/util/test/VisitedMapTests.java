@@ -0,0 +1,66 @@
+package coding101.tq.util.test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import coding101.tq.domain.VisitedMap;
+import coding101.tq.util.BitSetJson;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link VisitedMap} class.
+ */
+public class VisitedMapTests {
+
+    @Test
+    public void visitedNear() {
+        // GIVEN
+        VisitedMap map = new VisitedMap(10, 10);
+
+        // WHEN
+        boolean first = map.visit(5, 5);
+        boolean second = map.visit(5, 5);
+
+        // THEN
+        then(first).as("First visit").isTrue();
+        then(second).as("Second visit").isFalse();
+        then(map.hasVisited(5, 5)).as("Visited").isTrue();
+        then(map.hasVisited(4, 4)).as("Neighbour not visited").isFalse();
+        then(map.hasVisitedNear(4, 4)).as("Neighbour visited near").isTrue();
+        then(map.hasVisitedNear(6, 6)).as("Neighbour visited near").isTrue();
+        then(map.hasVisitedNear(7, 5)).as("Two cells away not visited near").isFalse();
+    }
+
+    @Test
+    public void growBeyondExpectedSize() {
+        // GIVEN
+        VisitedMap map = new VisitedMap(2, 2);
+
+        // WHEN
+        map.visit(100, 50);
+
+        // THEN
+        then(map.hasVisited(100, 50)).as("Visited beyond initial size").isTrue();
+        then(map.hasVisitedNear(101, 51)).as("Visited near beyond initial size").isTrue();
+    }
+
+    @Test
+    public void jsonRoundTrip() throws IOException {
+        // GIVEN
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(BitSetJson.createBitSetModule());
+        VisitedMap map = new VisitedMap();
+        map.visit(14, 1);
+        map.visit(70, 3);
+
+        // WHEN
+        String json = mapper.writeValueAsString(map);
+        VisitedMap result = mapper.readValue(json, VisitedMap.class);
+
+        // THEN
+        then(json).as("JSON format").isEqualTo("{\"visited\":{\"1\":[16384],\"3\":[0,64]}}");
+        then(result.hasVisited(70, 3)).as("Visited restored").isTrue();
+        then(result.hasVisitedNear(69, 2)).as("Visited near restored").isTrue();
+    }
+}